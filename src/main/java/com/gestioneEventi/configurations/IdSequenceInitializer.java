@@ -0,0 +1,62 @@
+package com.gestioneEventi.configurations;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Aligns the pooled ID sequences with the IDs already present in the tables.
+ * Entities that moved from IDENTITY to SEQUENCE generation keep their existing rows,
+ * so each sequence must start above the current maximum ID before the first insert.
+ * On MySQL Hibernate emulates sequences with single-row tables holding {@code next_val}.
+ * The update is idempotent and only ever moves a sequence forward.
+ *
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class IdSequenceInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    /**
+     * Must match the allocationSize of the @SequenceGenerator mappings.
+     */
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCE_TABLES = new LinkedHashMap<>();
+
+    static {
+        SEQUENCE_TABLES.put("event_seq", "event");
+        SEQUENCE_TABLES.put("activity_seq", "activity");
+        SEQUENCE_TABLES.put("ferie_seq", "ferie");
+        SEQUENCE_TABLES.put("partecipation_seq", "partecipation");
+        SEQUENCE_TABLES.put("team_building_partecipation_seq", "team_building_partecipation");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void alignSequences() {
+        SEQUENCE_TABLES.forEach((sequence, table) -> {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            // il pooled optimizer assegna gli id (next_val - ALLOCATION_SIZE, next_val]
+            long minimum = maxId + ALLOCATION_SIZE + 1;
+            int updated = jdbcTemplate.update(
+                    "UPDATE " + sequence + " SET next_val = ? WHERE next_val < ?", minimum, minimum);
+            if (updated > 0) {
+                log.info("Sequence {} aligned to {} (max id in {} = {})", sequence, minimum, table, maxId);
+            }
+        });
+    }
+}
@@ -0,0 +1,100 @@
+package com.gestioneEventi.configurations;
+
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Realigns the materialized RSVP counters with the participations actually stored.
+ * Between two runs the counters are maintained incrementally by {@code PartecipationService};
+ * this job repairs any drift (rows changed outside the service, a failed node) and backfills
+ * the table the first time it is introduced.
+ * Every statement is idempotent and sets absolute values, so the job can run at startup on
+ * several nodes at once and periodically afterwards without duplicate keys or double counting.
+ * <p>
+ * Under REPEATABLE READ an {@code INSERT ... SELECT} takes shared next-key locks on the source rows
+ * it reads, which blocks RSVP writes on them until the statement ends. The job therefore walks the
+ * events by id and realigns {@value #EVENT_BATCH_SIZE} events per statement, each in its own short
+ * transaction: only the participations of those events are locked, and only while their counts are
+ * recomputed through the {@code (event_id, status)} index.
+ *
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class PartecipationCounterReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(PartecipationCounterReconciler.class);
+
+    /**
+     * Number of events realigned by each pair of statements.
+     */
+    static final int EVENT_BATCH_SIZE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public PartecipationCounterReconciler(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @PostConstruct
+    public void reconcileAtStartup() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${app.partecipation-counter.reconcile-interval-ms:3600000}",
+            fixedDelayString = "${app.partecipation-counter.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        try {
+            // contatori di eventi non più esistenti (l'eliminazione di un evento li rimuove già)
+            int removed = jdbcTemplate.update("""
+                    DELETE FROM partecipation_counter
+                    WHERE NOT EXISTS (SELECT 1 FROM event e WHERE e.id = partecipation_counter.event_id)
+                    """);
+            int upserted = 0;
+            long afterId = 0;
+            List<Long> eventIds;
+            do {
+                eventIds = jdbcTemplate.queryForList(
+                        "SELECT id FROM event WHERE id > ? ORDER BY id LIMIT ?", Long.class, afterId, EVENT_BATCH_SIZE);
+                if (eventIds.isEmpty()) {
+                    break;
+                }
+                Map<String, Object> params = Map.of("eventIds", eventIds);
+                removed += namedJdbcTemplate.update("""
+                        DELETE FROM partecipation_counter
+                        WHERE event_id IN (:eventIds)
+                        AND NOT EXISTS (
+                            SELECT 1 FROM partecipation p
+                            WHERE p.event_id = partecipation_counter.event_id
+                            AND p.status = partecipation_counter.status)
+                        """, params);
+                // VALUES(total) invece dell'alias della sottoquery: la stessa istruzione gira anche su H2 nei test
+                upserted += namedJdbcTemplate.update("""
+                        INSERT INTO partecipation_counter (event_id, status, total)
+                        SELECT src.event_id, src.status, src.cnt FROM (
+                            SELECT event_id, status, COUNT(*) AS cnt FROM partecipation
+                            WHERE event_id IN (:eventIds) AND status IS NOT NULL
+                            GROUP BY event_id, status) src
+                        ON DUPLICATE KEY UPDATE total = VALUES(total)
+                        """, params);
+                afterId = eventIds.get(eventIds.size() - 1);
+            } while (eventIds.size() == EVENT_BATCH_SIZE);
+            log.info("Partecipation counters reconciled ({} rows upserted, {} stale rows removed)", upserted, removed);
+        } catch (DataAccessException e) {
+            // un deadlock con un altro nodo che esegue la stessa riconciliazione non è grave: riprova al prossimo giro
+            log.warn("Partecipation counter reconciliation failed, will retry at the next run", e);
+        }
+    }
+}
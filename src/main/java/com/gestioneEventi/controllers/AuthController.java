@@ -8,6 +8,7 @@ import com.gestioneEventi.repositories.UserRepository;
 import com.gestioneEventi.services.EmployeeDirectoryClient;
 import com.gestioneEventi.services.JwtService;
 import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
 import com.google.firebase.auth.FirebaseToken;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -20,9 +21,17 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -34,6 +43,8 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Autenticazione", description = "API per l'autenticazione tramite Firebase")
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     private EmployeeDirectoryClient directoryClient;
 
@@ -43,48 +54,66 @@ public class AuthController {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor authExecutor;
+
     @PostMapping("/firebase")
     @Operation(summary = "Autenticazione Firebase", description = "Autentica l'utente tramite token Firebase e restituisce un JWT per le API")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Autenticazione riuscita", content = @Content(schema = @Schema(implementation = AuthResponse.class))),
             @ApiResponse(responseCode = "401", description = "Token Firebase non valido", content = @Content),
-            @ApiResponse(responseCode = "403", description = "Accesso negato: utente non nel directory aziendale", content = @Content)
+            @ApiResponse(responseCode = "403", description = "Accesso negato: utente non nel directory aziendale", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Errore interno durante il login", content = @Content)
     })
-    public ResponseEntity<?> authenticate(
-            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Token ID Firebase", required = true, content = @Content(schema = @Schema(implementation = TokenRequest.class))) @RequestBody TokenRequest request,
-            HttpServletResponse response) {
+    public CompletableFuture<ResponseEntity<?>> authenticate(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Token ID Firebase", required = true, content = @Content(schema = @Schema(implementation = TokenRequest.class))) @RequestBody TokenRequest request) {
+        FirebaseToken decoded;
         try {
-            FirebaseToken decoded = FirebaseAuth.getInstance().verifyIdToken(request.getIdToken());
-            String email = decoded.getEmail();
-
-            if (email == null || !directoryClient.isEmployee(email)) {
-                return ResponseEntity.status(403).body("Access denied: not in employee directory");
-            }
+            decoded = FirebaseAuth.getInstance().verifyIdToken(request.getIdToken());
+        } catch (FirebaseAuthException | IllegalArgumentException e) {
+            // solo un token non valido, scaduto o mancante è un 401; gli altri errori diventano 500
+            log.warn("Firebase token rejected: {}", e.getMessage());
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(401).body("Token Firebase non valido: " + e.getMessage()));
+        }
 
-            User user = userRepository.findByEmail(email)
-                    .orElseGet(() -> {
-                        User newUser = new User();
-                        newUser.setEmail(email);
-                        newUser.setName(decoded.getName());
-                        newUser.setRole(Role.USER);
-                        return userRepository.save(newUser);
-                    });
-
-            String accessToken = jwtService.generateAccessToken(user);
-            String refreshToken = jwtService.generateRefreshToken(user);
-
-            Cookie cookie = new Cookie("refreshToken", refreshToken);
-            cookie.setHttpOnly(true);
-            cookie.setPath("/auth/refresh");
-            cookie.setMaxAge(7 * 24 * 60 * 60);
-            response.addCookie(cookie);
-
-            return ResponseEntity.ok(new AuthResponse(accessToken, new UserDTO(user)));
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(401).body("Token Firebase non valido: " + e.getMessage());
+        String email = decoded.getEmail();
+        if (email == null) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(403).body("Access denied: not in employee directory"));
         }
+
+        // la verifica sul directory non occupa il thread della richiesta; il resto gira sull'executor applicativo.
+        // isEmployeeAsync non fallisce mai (applica il fallback), quindi un errore qui viene dal login
+        // e arriva al GlobalExceptionHandler come 500
+        return directoryClient.isEmployeeAsync(email)
+                .thenApplyAsync(allowed -> allowed ? login(email, decoded.getName())
+                        : ResponseEntity.status(403).body("Access denied: not in employee directory"), authExecutor);
+    }
+
+    private ResponseEntity<?> login(String email, String name) {
+        User user = userRepository.findByEmailWithGroups(email)
+                .orElseGet(() -> {
+                    User newUser = new User();
+                    newUser.setEmail(email);
+                    newUser.setName(name);
+                    newUser.setRole(Role.USER);
+                    return userRepository.save(newUser);
+                });
+
+        String accessToken = jwtService.generateAccessToken(user);
+        String refreshToken = jwtService.generateRefreshToken(user);
+
+        ResponseCookie cookie = ResponseCookie.from("refreshToken", refreshToken)
+                .httpOnly(true)
+                .path("/auth/refresh")
+                .maxAge(Duration.ofDays(7))
+                .build();
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, cookie.toString())
+                .body(new AuthResponse(accessToken, new UserDTO(user)));
     }
 
     @PostMapping("/refresh")
@@ -102,17 +131,25 @@ public class AuthController {
             }
         }
 
-        if (refreshToken == null || !jwtService.isTokenValid(refreshToken)) {
+        if (refreshToken == null) {
+            return ResponseEntity.status(401).body("Invalid refresh token");
+        }
+
+        JwtService.TokenVerification verification = jwtService.verifyToken(refreshToken);
+        if (verification.failure() == JwtService.TokenFailure.EXPIRED) {
+            return ResponseEntity.status(401).body("Refresh token expired");
+        }
+        if (!verification.isValid()) {
             return ResponseEntity.status(401).body("Invalid refresh token");
         }
 
-        Claims claims = jwtService.parseToken(refreshToken).getPayload();
+        Claims claims = verification.claims();
         if (!"refresh".equals(claims.get("type", String.class))) {
             return ResponseEntity.status(400).body("Token is not a refresh token");
         }
 
         String email = claims.getSubject();
-        User user = userRepository.findByEmail(email)
+        User user = userRepository.findByEmailWithGroups(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Utente non trovato"));
 
         String newAccessToken = jwtService.generateAccessToken(user);
@@ -2,6 +2,8 @@ package com.gestioneEventi.controllers;
 
 import com.gestioneEventi.dto.event.CreateEventRequest;
 import com.gestioneEventi.dto.event.EventDTO;
+import com.gestioneEventi.dto.event.EventPageDTO;
+import com.gestioneEventi.dto.event.EventSummaryDTO;
 import com.gestioneEventi.dto.event.UpdateEventRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,6 +14,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,11 +23,15 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import com.gestioneEventi.models.Event;
+import com.gestioneEventi.models.EventType;
 import com.gestioneEventi.models.User;
 import com.gestioneEventi.services.EventService;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Positive;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -32,6 +40,9 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class EventController {
 
+    private static final String VIEW_FULL = "full";
+    private static final String VIEW_SUMMARY = "summary";
+
     @Autowired
     private EventService eventService;
 
@@ -44,8 +55,14 @@ public class EventController {
         @ApiResponse(responseCode = "200", description = "Lista eventi recuperata con successo"),
         @ApiResponse(responseCode = "401", description = "Non autenticato", content = @Content)
     })
-    public ResponseEntity<List<EventDTO>> getMyEvents(
+    public ResponseEntity<List<?>> getMyEvents(
+            @Parameter(description = "Formato della risposta: full (default) o summary (senza lista invitati)", example = "summary")
+            @RequestParam(defaultValue = VIEW_FULL) String view,
             @Parameter(hidden = true) @AuthenticationPrincipal User user) {
+        if (isSummaryView(view)) {
+            List<EventSummaryDTO> summaries = eventService.getUserEventSummaries(user.getId());
+            return ResponseEntity.ok(summaries);
+        }
         List<Event> events = eventService.getUserEvents(user.getId());
         List<EventDTO> eventDTOs = events.stream()
                 .map(EventDTO::new)
@@ -81,7 +98,13 @@ public class EventController {
         @ApiResponse(responseCode = "403", description = "Permessi insufficienti", content = @Content),
         @ApiResponse(responseCode = "401", description = "Non autenticato", content = @Content)
     })
-    public ResponseEntity<List<EventDTO>> getAllEvents() {
+    public ResponseEntity<List<?>> getAllEvents(
+            @Parameter(description = "Formato della risposta: full (default) o summary (senza lista invitati)", example = "summary")
+            @RequestParam(defaultValue = VIEW_FULL) String view) {
+        if (isSummaryView(view)) {
+            List<EventSummaryDTO> summaries = eventService.getAllEventSummaries();
+            return ResponseEntity.ok(summaries);
+        }
         List<EventDTO> events = eventService.getAllEvents()
                 .stream()
                 .map(EventDTO::new)
@@ -89,6 +112,42 @@ public class EventController {
         return ResponseEntity.ok(events);
     }
 
+    @GetMapping("/window")
+    @PreAuthorize("hasAuthority('EDITOR') or hasAuthority('ADMIN')")
+    @Operation(
+        summary = "Ottieni gli eventi in una finestra temporale (EDITOR/ADMIN)",
+        description = "Recupera gli eventi che si sovrappongono all'intervallo from/to, ordinati per data di inizio, "
+            + "con paginazione a cursore (afterStartDate/afterId). Richiede ruolo EDITOR o ADMIN"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Pagina di eventi recuperata con successo"),
+        @ApiResponse(responseCode = "400", description = "Parametri non validi", content = @Content),
+        @ApiResponse(responseCode = "403", description = "Permessi insufficienti", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Non autenticato", content = @Content)
+    })
+    public ResponseEntity<EventPageDTO> getEventsInWindow(
+            @Parameter(description = "Primo giorno della finestra", required = true, example = "2025-07-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Ultimo giorno della finestra", required = true, example = "2025-07-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Filtro opzionale sul tipo di evento")
+            @RequestParam(required = false) EventType eventType,
+            @Parameter(description = "Cursore: data di inizio dell'ultimo evento della pagina precedente")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterStartDate,
+            @Parameter(description = "Cursore: ID dell'ultimo evento della pagina precedente")
+            @RequestParam(required = false) Long afterId,
+            @Parameter(description = "Numero massimo di eventi per pagina", example = "50")
+            @RequestParam(defaultValue = "50") @Min(1) @Max(200) int size) {
+        Slice<Event> slice = eventService.getEventsInWindow(from, to, eventType, afterStartDate, afterId, size);
+        List<EventDTO> items = slice.getContent().stream()
+                .map(EventDTO::new)
+                .toList();
+        Event last = slice.hasNext() ? slice.getContent().get(slice.getNumberOfElements() - 1) : null;
+        return ResponseEntity.ok(new EventPageDTO(items,
+                last != null ? last.getStartDate() : null,
+                last != null ? last.getId() : null));
+    }
+
     @PostMapping
     @PreAuthorize("hasAuthority('EDITOR') or hasAuthority('ADMIN')")
     @Operation(
@@ -158,4 +217,14 @@ public class EventController {
             @PathVariable @Positive Long id) {
         eventService.deleteEvent(id);
     }
-}
\ No newline at end of file
+
+    private boolean isSummaryView(String view) {
+        if (VIEW_SUMMARY.equalsIgnoreCase(view)) {
+            return true;
+        }
+        if (VIEW_FULL.equalsIgnoreCase(view)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Parametro view non valido: " + view + " (valori ammessi: full, summary)");
+    }
+}
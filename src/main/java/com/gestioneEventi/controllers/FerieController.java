@@ -1,5 +1,7 @@
 package com.gestioneEventi.controllers;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,20 +14,30 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import com.gestioneEventi.dto.BulkUpdateResultDTO;
+import com.gestioneEventi.dto.ferie.AbsenceDTO;
+import com.gestioneEventi.dto.ferie.BulkFerieStatusRequest;
 import com.gestioneEventi.dto.ferie.CreateFerieRequest;
+import com.gestioneEventi.dto.ferie.FerieCreatedDTO;
 import com.gestioneEventi.dto.ferie.FerieDTO;
+import com.gestioneEventi.dto.ferie.GroupAvailabilityDTO;
+import com.gestioneEventi.dto.ferie.GroupCoverageDTO;
 import com.gestioneEventi.dto.ferie.UpdateFerieRequest;
 import com.gestioneEventi.models.Ferie;
 import com.gestioneEventi.models.Status;
 import com.gestioneEventi.models.User;
 import com.gestioneEventi.services.FerieService;
+import com.gestioneEventi.utils.ExportFormat;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 
@@ -50,7 +62,7 @@ public class FerieController {
         @ApiResponse(responseCode = "404", description = "Evento non trovato", content = @Content),
         @ApiResponse(responseCode = "401", description = "Non autenticato", content = @Content)
     })
-    public ResponseEntity<FerieDTO> createFerie(
+    public ResponseEntity<FerieCreatedDTO> createFerie(
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
                 description = "Dati della richiesta ferie",
                 required = true,
@@ -59,7 +71,7 @@ public class FerieController {
             @Valid @RequestBody CreateFerieRequest request,
             @Parameter(hidden = true) @AuthenticationPrincipal User user) {
         Ferie created = ferieService.createFerie(request, user);
-        return ResponseEntity.status(HttpStatus.CREATED).body(new FerieDTO(created));
+        return ResponseEntity.status(HttpStatus.CREATED).body(new FerieCreatedDTO(created));
     }
 
     @GetMapping("/me")
@@ -80,6 +92,27 @@ public class FerieController {
         return ResponseEntity.ok(ferie);
     }
 
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('EDITOR') or hasAuthority('ADMIN')")
+    @Operation(
+        summary = "Esporta tutte le richieste ferie (EDITOR/ADMIN)",
+        description = "Scarica tutte le richieste ferie in formato CSV o NDJSON. Le righe vengono lette dal database e scritte nella risposta una alla volta. Richiede ruolo EDITOR o ADMIN"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export generato con successo"),
+        @ApiResponse(responseCode = "403", description = "Permessi insufficienti", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Non autenticato", content = @Content)
+    })
+    public void exportFerie(
+            @Parameter(description = "Formato dell'export", example = "CSV")
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"ferie." + format.getExtension() + "\"");
+        ferieService.exportFerie(format, response.getWriter());
+    }
+
     @GetMapping("/all")
     @PreAuthorize("hasAuthority('EDITOR') or hasAuthority('ADMIN')")
     @Operation(
@@ -99,6 +132,75 @@ public class FerieController {
         return ResponseEntity.ok(ferie);
     }
 
+    @GetMapping("/overlap")
+    @PreAuthorize("hasAuthority('EDITOR') or hasAuthority('ADMIN')")
+    @Operation(
+        summary = "Ottieni le ferie in un intervallo (EDITOR/ADMIN)",
+        description = "Recupera le ferie approvate che si sovrappongono all'intervallo from/to, opzionalmente solo per i membri di un gruppo. Richiede ruolo EDITOR o ADMIN"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lista assenze recuperata con successo"),
+        @ApiResponse(responseCode = "400", description = "Intervallo non valido", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Gruppo non trovato", content = @Content),
+        @ApiResponse(responseCode = "403", description = "Permessi insufficienti", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Non autenticato", content = @Content)
+    })
+    public ResponseEntity<List<AbsenceDTO>> getOverlappingFerie(
+            @Parameter(description = "Primo giorno dell'intervallo", required = true, example = "2025-08-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Ultimo giorno dell'intervallo", required = true, example = "2025-08-15")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "ID del gruppo per filtrare i membri")
+            @RequestParam(required = false) Long groupId) {
+        return ResponseEntity.ok(ferieService.getOverlappingFerie(from, to, groupId));
+    }
+
+    @GetMapping("/coverage")
+    @PreAuthorize("hasAuthority('EDITOR') or hasAuthority('ADMIN')")
+    @Operation(
+        summary = "Ottieni la copertura di un gruppo (EDITOR/ADMIN)",
+        description = "Calcola quanti membri del gruppo sono disponibili nell'intervallo from/to e quali ferie si sovrappongono. Richiede ruolo EDITOR o ADMIN"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Copertura calcolata con successo"),
+        @ApiResponse(responseCode = "400", description = "Intervallo non valido", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Gruppo non trovato", content = @Content),
+        @ApiResponse(responseCode = "403", description = "Permessi insufficienti", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Non autenticato", content = @Content)
+    })
+    public ResponseEntity<GroupCoverageDTO> getGroupCoverage(
+            @Parameter(description = "ID del gruppo", required = true)
+            @RequestParam @Positive Long groupId,
+            @Parameter(description = "Primo giorno dell'intervallo", required = true, example = "2025-08-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Ultimo giorno dell'intervallo", required = true, example = "2025-08-15")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(ferieService.getGroupCoverage(groupId, from, to));
+    }
+
+    @GetMapping("/heatmap")
+    @PreAuthorize("hasAuthority('EDITOR') or hasAuthority('ADMIN')")
+    @Operation(
+        summary = "Ottieni la mappa giornaliera delle assenze di un gruppo (EDITOR/ADMIN)",
+        description = "Restituisce per ogni giorno dell'intervallo from/to il numero di membri del gruppo in ferie approvate (massimo 366 giorni). Richiede ruolo EDITOR o ADMIN"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Mappa assenze calcolata con successo"),
+        @ApiResponse(responseCode = "400", description = "Intervallo non valido", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Gruppo non trovato", content = @Content),
+        @ApiResponse(responseCode = "403", description = "Permessi insufficienti", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Non autenticato", content = @Content)
+    })
+    public ResponseEntity<GroupAvailabilityDTO> getGroupAvailability(
+            @Parameter(description = "ID del gruppo", required = true)
+            @RequestParam @Positive Long groupId,
+            @Parameter(description = "Primo giorno dell'intervallo", required = true, example = "2025-08-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Ultimo giorno dell'intervallo", required = true, example = "2025-08-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(ferieService.getGroupAvailability(groupId, from, to));
+    }
+
     @PutMapping("/{id}")
     @Operation(
         summary = "Aggiorna richiesta ferie",
@@ -145,6 +247,28 @@ public class FerieController {
         return ResponseEntity.ok(new FerieDTO(updated));
     }
 
+    @PutMapping("/status")
+    @PreAuthorize("hasAuthority('EDITOR') or hasAuthority('ADMIN')")
+    @Operation(
+        summary = "Aggiorna lo stato di più richieste ferie (EDITOR/ADMIN)",
+        description = "Approva o rifiuta in blocco le richieste ferie indicate per ID oppure selezionate tramite filtri (evento, gruppo, intervallo di date). Restituisce l'esito per ogni ID. Richiede ruolo EDITOR o ADMIN"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Aggiornamento massivo eseguito"),
+        @ApiResponse(responseCode = "422", description = "Richiesta non valida", content = @Content),
+        @ApiResponse(responseCode = "403", description = "Permessi insufficienti", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Non autenticato", content = @Content)
+    })
+    public ResponseEntity<BulkUpdateResultDTO> updateFerieStatusBulk(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                description = "Nuovo stato e selezione delle richieste ferie",
+                required = true,
+                content = @Content(schema = @Schema(implementation = BulkFerieStatusRequest.class))
+            )
+            @RequestBody BulkFerieStatusRequest request) {
+        return ResponseEntity.ok(ferieService.updateFerieStatusBulk(request));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('EDITOR')")
     @Operation(
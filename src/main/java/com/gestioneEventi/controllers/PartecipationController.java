@@ -1,11 +1,17 @@
 package com.gestioneEventi.controllers;
 
+import com.gestioneEventi.dto.BulkUpdateResultDTO;
+import com.gestioneEventi.dto.partecipation.BulkPartecipationStatusRequest;
 import com.gestioneEventi.dto.partecipation.CreatePartecipation;
+import com.gestioneEventi.dto.partecipation.PartecipationCountsDTO;
 import com.gestioneEventi.dto.partecipation.PartecipationDTO;
+import com.gestioneEventi.dto.partecipation.PartecipationPageDTO;
 import com.gestioneEventi.dto.partecipation.UpdatePartecipation;
 import com.gestioneEventi.models.Partecipation;
+import com.gestioneEventi.models.PartecipationStatus;
 import com.gestioneEventi.models.User;
 import com.gestioneEventi.services.PartecipationService;
+import com.gestioneEventi.utils.ExportFormat;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,13 +21,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Positive;
+
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -77,18 +89,49 @@ public class PartecipationController {
         return ResponseEntity.ok(partecipationDTOs);
     }
 
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('EDITOR') or hasAuthority('ADMIN')")
+    @Operation(
+        summary = "Esporta tutte le partecipazioni (EDITOR/ADMIN)",
+        description = "Scarica tutte le partecipazioni in formato CSV o NDJSON. Le righe vengono lette dal database e scritte nella risposta una alla volta. Richiede ruolo EDITOR o ADMIN"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export generato con successo"),
+        @ApiResponse(responseCode = "403", description = "Permessi insufficienti", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Non autenticato", content = @Content)
+    })
+    public void exportPartecipations(
+            @Parameter(description = "Formato dell'export", example = "CSV")
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"partecipazioni." + format.getExtension() + "\"");
+        partecipationService.exportPartecipations(format, response.getWriter());
+    }
+
     @GetMapping("/event/{eventId}")
     @Operation(
         summary = "Ottieni partecipazioni per evento",
-        description = "Recupera tutte le partecipazioni relative ad un evento specifico"
+        description = "Recupera tutte le partecipazioni relative ad un evento specifico. Se viene indicato il parametro page restituisce una pagina di riepiloghi, eventualmente filtrata per stato"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista partecipazioni recuperata con successo"),
         @ApiResponse(responseCode = "401", description = "Non autenticato", content = @Content)
     })
-    public ResponseEntity<List<PartecipationDTO>> getPartecipationsByEvent(
+    public ResponseEntity<?> getPartecipationsByEvent(
             @Parameter(description = "ID dell'evento", required = true)
-            @PathVariable @Positive Long eventId) {
+            @PathVariable @Positive Long eventId,
+            @Parameter(description = "Numero di pagina (a partire da 0); se assente restituisce la lista completa", example = "0")
+            @RequestParam(required = false) @Min(0) Integer page,
+            @Parameter(description = "Dimensione della pagina (1-200)", example = "50")
+            @RequestParam(defaultValue = "50") @Min(1) @Max(200) int size,
+            @Parameter(description = "Filtro per stato, solo con paginazione", example = "PENDING")
+            @RequestParam(required = false) PartecipationStatus status) {
+        if (page != null) {
+            PartecipationPageDTO result = partecipationService.getPartecipationPageByEventId(eventId, status, page, size);
+            return ResponseEntity.ok(result);
+        }
         List<Partecipation> partecipations = partecipationService.getPartecipationsByEventId(eventId);
         List<PartecipationDTO> partecipationDTOs = partecipations.stream()
                 .map(PartecipationDTO::new)
@@ -96,6 +139,22 @@ public class PartecipationController {
         return ResponseEntity.ok(partecipationDTOs);
     }
 
+    @GetMapping("/counts")
+    @Operation(
+        summary = "Ottieni i conteggi delle partecipazioni per evento",
+        description = "Restituisce il numero di partecipazioni in sospeso, accettate e rifiutate per ciascuno degli eventi indicati (massimo 100)"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Conteggi recuperati con successo"),
+        @ApiResponse(responseCode = "422", description = "Lista eventi non valida", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Non autenticato", content = @Content)
+    })
+    public ResponseEntity<List<PartecipationCountsDTO>> getPartecipationCounts(
+            @Parameter(description = "ID degli eventi", required = true, example = "1,2,3")
+            @RequestParam List<Long> eventIds) {
+        return ResponseEntity.ok(partecipationService.getPartecipationCounts(eventIds));
+    }
+
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasAuthority('EDITOR') or hasAuthority('ADMIN')")
     @Operation(
@@ -119,14 +178,22 @@ public class PartecipationController {
     @GetMapping("/me")
     @Operation(
         summary = "Ottieni le mie partecipazioni",
-        description = "Recupera tutte le partecipazioni dell'utente corrente"
+        description = "Recupera tutte le partecipazioni dell'utente corrente. Se viene indicato il parametro page restituisce una pagina di riepiloghi"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista partecipazioni recuperata con successo"),
         @ApiResponse(responseCode = "401", description = "Non autenticato", content = @Content)
     })
-    public ResponseEntity<List<PartecipationDTO>> getMyPartecipations(
+    public ResponseEntity<?> getMyPartecipations(
+            @Parameter(description = "Numero di pagina (a partire da 0); se assente restituisce la lista completa", example = "0")
+            @RequestParam(required = false) @Min(0) Integer page,
+            @Parameter(description = "Dimensione della pagina (1-200)", example = "50")
+            @RequestParam(defaultValue = "50") @Min(1) @Max(200) int size,
             @Parameter(hidden = true) @AuthenticationPrincipal User user) {
+        if (page != null) {
+            PartecipationPageDTO result = partecipationService.getPartecipationPageByUserId(user.getId(), page, size);
+            return ResponseEntity.ok(result);
+        }
         List<Partecipation> partecipations = partecipationService.getPartecipationsByUserId(user.getId());
         List<PartecipationDTO> partecipationDTOs = partecipations.stream()
                 .map(PartecipationDTO::new)
@@ -160,6 +227,27 @@ public class PartecipationController {
         return ResponseEntity.ok(new PartecipationDTO(updated));
     }
 
+    @PutMapping("/status")
+    @Operation(
+        summary = "Aggiorna più partecipazioni",
+        description = "Applica uno stato di accettazione a una lista di partecipazioni oppure a tutte le partecipazioni in sospeso di un evento. Gli utenti senza ruolo EDITOR o ADMIN possono modificare solo le proprie partecipazioni. Restituisce l'esito per ogni ID"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Aggiornamento massivo eseguito"),
+        @ApiResponse(responseCode = "422", description = "Richiesta non valida", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Non autenticato", content = @Content)
+    })
+    public ResponseEntity<BulkUpdateResultDTO> updatePartecipationsBulk(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                description = "Nuovo stato e selezione delle partecipazioni",
+                required = true,
+                content = @Content(schema = @Schema(implementation = BulkPartecipationStatusRequest.class))
+            )
+            @RequestBody BulkPartecipationStatusRequest request,
+            @Parameter(hidden = true) @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(partecipationService.updatePartecipationsBulk(request, user));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('EDITOR') or hasAuthority('ADMIN')")
     @Operation(
@@ -1,6 +1,7 @@
 package com.gestioneEventi.controllers;
 
 import com.gestioneEventi.dto.teambuilding.CreateTeamBuildingPartecipationRequest;
+import com.gestioneEventi.dto.teambuilding.DateWindowDTO;
 import com.gestioneEventi.dto.teambuilding.TeamBuildingPartecipationDTO;
 import com.gestioneEventi.models.TeamBuildingPartecipation;
 import com.gestioneEventi.models.User;
@@ -55,6 +56,18 @@ public class TeamBuildingPartecipationController {
         return ResponseEntity.ok(popularity);
     }
 
+    @Operation(summary = "Suggerisce le migliori finestre di date per un evento TEAM_BUILDING in base alle proposte (EDITOR/ADMIN)")
+    @GetMapping("/best-windows")
+    @PreAuthorize("hasAuthority('EDITOR') or hasAuthority('ADMIN')")
+    public ResponseEntity<List<DateWindowDTO>> getBestDateWindows(
+            @PathVariable Long eventId,
+            @RequestParam int length,
+            @RequestParam(defaultValue = "5") int top,
+            @RequestParam(required = false) Long activityId) {
+        List<DateWindowDTO> windows = partecipationService.getBestDateWindows(eventId, length, top, activityId);
+        return ResponseEntity.ok(windows);
+    }
+
     @Operation(summary = "Ottieni le mie partecipazioni a eventi TEAM_BUILDING")
     @GetMapping("/me")
     public ResponseEntity<List<TeamBuildingPartecipationDTO>> getMyPartecipations(
@@ -109,8 +109,10 @@ public class UserGroupController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Gruppo creato con successo"),
         @ApiResponse(responseCode = "400", description = "Dati non validi o utenti non trovati", content = @Content),
+        @ApiResponse(responseCode = "422", description = "Utenti non presenti nel directory aziendale", content = @Content),
         @ApiResponse(responseCode = "403", description = "Permessi insufficienti", content = @Content),
-        @ApiResponse(responseCode = "401", description = "Non autenticato", content = @Content)
+        @ApiResponse(responseCode = "401", description = "Non autenticato", content = @Content),
+        @ApiResponse(responseCode = "503", description = "Directory aziendale non raggiungibile", content = @Content)
     })
     public ResponseEntity<?> createGroup(
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
@@ -0,0 +1,50 @@
+package com.gestioneEventi.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Esito di un aggiornamento massivo, con il risultato per ogni ID")
+public class BulkUpdateResultDTO {
+
+    @Schema(description = "Numero di elementi aggiornati", example = "120")
+    private int updated;
+
+    @Schema(description = "Numero di elementi già nello stato richiesto", example = "3")
+    private int unchanged;
+
+    @Schema(description = "Numero di elementi non trovati", example = "1")
+    private int notFound;
+
+    @Schema(description = "Numero di elementi che l'utente non può modificare", example = "0")
+    private int forbidden;
+
+    @Schema(description = "Numero di elementi saltati perché il loro stato è cambiato durante l'aggiornamento", example = "0")
+    private int skipped;
+
+    @Schema(description = "Esito per ciascun ID")
+    private Map<Long, Outcome> outcomes = new LinkedHashMap<>();
+
+    @Schema(description = "Esito dell'aggiornamento di un singolo elemento")
+    public enum Outcome {
+        UPDATED,
+        UNCHANGED,
+        NOT_FOUND,
+        FORBIDDEN,
+        SKIPPED
+    }
+
+    public void add(Long id, Outcome outcome) {
+        outcomes.put(id, outcome);
+        switch (outcome) {
+            case UPDATED -> updated++;
+            case UNCHANGED -> unchanged++;
+            case NOT_FOUND -> notFound++;
+            case FORBIDDEN -> forbidden++;
+            case SKIPPED -> skipped++;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.gestioneEventi.dto.event;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "Pagina di eventi in una finestra temporale con cursore per la pagina successiva")
+public class EventPageDTO {
+
+    @Schema(description = "Eventi della pagina, ordinati per data di inizio e ID")
+    private List<EventDTO> items;
+
+    @Schema(description = "Data di inizio dell'ultimo evento della pagina, da passare come afterStartDate (null se non ci sono altre pagine)", example = "2025-07-15")
+    private LocalDate nextStartDate;
+
+    @Schema(description = "ID dell'ultimo evento della pagina, da passare come afterId (null se non ci sono altre pagine)", example = "42")
+    private Long nextId;
+}
@@ -0,0 +1,45 @@
+package com.gestioneEventi.dto.event;
+
+import java.time.LocalDate;
+
+import com.gestioneEventi.models.EventType;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Riepilogo di un evento senza la lista degli invitati")
+public class EventSummaryDTO {
+
+    @Schema(description = "ID univoco dell'evento", example = "1")
+    private Long id;
+
+    @Schema(description = "Titolo dell'evento", example = "Team Building Estivo")
+    private String title;
+
+    @Schema(description = "Data di inizio dell'evento", example = "2025-07-15")
+    private LocalDate startDate;
+
+    @Schema(description = "Data di fine dell'evento", example = "2025-07-20")
+    private LocalDate endDate;
+
+    @Schema(description = "Tipo di evento", example = "TEAM_BUILDING")
+    private EventType eventType;
+
+    @Schema(description = "Numero di utenti invitati all'evento", example = "25")
+    private long invitedCount;
+
+    /**
+     * Constructor used by JPQL constructor expressions.
+     * The invitee count is computed in SQL, so the invited users are never loaded.
+     */
+    public EventSummaryDTO(Long id, String title, LocalDate startDate, LocalDate endDate,
+            EventType eventType, Number invitedCount) {
+        this.id = id;
+        this.title = title;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.eventType = eventType;
+        this.invitedCount = invitedCount != null ? invitedCount.longValue() : 0L;
+    }
+}
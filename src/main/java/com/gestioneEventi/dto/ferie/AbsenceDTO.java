@@ -0,0 +1,31 @@
+package com.gestioneEventi.dto.ferie;
+
+import java.time.LocalDate;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "Assenza per ferie approvate di un utente in un intervallo di date")
+public class AbsenceDTO {
+
+    @Schema(description = "ID della richiesta ferie", example = "1")
+    private Long ferieId;
+
+    @Schema(description = "ID dell'utente assente", example = "7")
+    private Long userId;
+
+    @Schema(description = "Nome dell'utente assente", example = "Mario Rossi")
+    private String userName;
+
+    @Schema(description = "Email dell'utente assente", example = "mario.rossi@example.com")
+    private String userEmail;
+
+    @Schema(description = "Data di inizio delle ferie", example = "2025-07-16")
+    private LocalDate startDate;
+
+    @Schema(description = "Data di fine delle ferie", example = "2025-07-19")
+    private LocalDate endDate;
+}
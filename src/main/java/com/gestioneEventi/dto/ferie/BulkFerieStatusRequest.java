@@ -0,0 +1,32 @@
+package com.gestioneEventi.dto.ferie;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.gestioneEventi.models.Status;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Richiesta di cambio stato massivo delle ferie, per lista di ID oppure per filtro")
+public class BulkFerieStatusRequest {
+
+    @Schema(description = "Nuovo stato da applicare", example = "APPROVED", required = true)
+    private Status status;
+
+    @Schema(description = "ID delle richieste ferie da aggiornare (alternativo ai filtri)", example = "[1, 2, 3]")
+    private List<Long> ids;
+
+    @Schema(description = "Filtro: ID dell'evento", example = "4")
+    private Long eventId;
+
+    @Schema(description = "Filtro: ID del gruppo dei richiedenti", example = "2")
+    private Long groupId;
+
+    @Schema(description = "Filtro: ferie che terminano a partire da questa data", example = "2025-12-01")
+    private LocalDate from;
+
+    @Schema(description = "Filtro: ferie che iniziano entro questa data", example = "2025-12-31")
+    private LocalDate to;
+}
@@ -0,0 +1,53 @@
+package com.gestioneEventi.dto.ferie;
+
+import java.time.LocalDate;
+
+import com.gestioneEventi.models.Ferie;
+import com.gestioneEventi.models.Status;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * Response of a vacation request submission.
+ * References the event by id and title only, so building it never loads the event's invitees.
+ */
+@Data
+@Schema(description = "Richiesta ferie appena creata, con i soli riferimenti all'evento e all'autore")
+public class FerieCreatedDTO {
+
+    @Schema(description = "ID univoco della richiesta ferie", example = "1")
+    private Long id;
+
+    @Schema(description = "Titolo della richiesta ferie", example = "Ferie estive")
+    private String title;
+
+    @Schema(description = "Data di inizio delle ferie", example = "2025-07-16")
+    private LocalDate startDate;
+
+    @Schema(description = "Data di fine delle ferie", example = "2025-07-19")
+    private LocalDate endDate;
+
+    @Schema(description = "Stato della richiesta ferie", example = "APPROVED")
+    private Status status;
+
+    @Schema(description = "ID dell'evento associato alla richiesta ferie", example = "3")
+    private Long eventId;
+
+    @Schema(description = "Titolo dell'evento associato alla richiesta ferie", example = "Chiusura estiva")
+    private String eventTitle;
+
+    @Schema(description = "ID dell'utente che ha creato la richiesta ferie", example = "12")
+    private Long createdById;
+
+    public FerieCreatedDTO(Ferie ferie) {
+        this.id = ferie.getId();
+        this.title = ferie.getTitle();
+        this.startDate = ferie.getStartDate();
+        this.endDate = ferie.getEndDate();
+        this.status = ferie.getStatus();
+        this.eventId = ferie.getEvent() != null ? ferie.getEvent().getId() : null;
+        this.eventTitle = ferie.getEvent() != null ? ferie.getEvent().getTitle() : null;
+        this.createdById = ferie.getCreatedBy() != null ? ferie.getCreatedBy().getId() : null;
+    }
+}
@@ -0,0 +1,54 @@
+package com.gestioneEventi.dto.ferie;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import com.gestioneEventi.models.Status;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "Riga piatta dell'export delle richieste ferie")
+public class FerieExportRow {
+
+    public static final List<String> CSV_HEADER = List.of(
+            "id", "title", "startDate", "endDate", "status", "eventId", "eventTitle", "userId", "userName", "userEmail");
+
+    @Schema(description = "ID della richiesta ferie", example = "1")
+    private Long id;
+
+    @Schema(description = "Titolo della richiesta ferie", example = "Ferie estive")
+    private String title;
+
+    @Schema(description = "Data di inizio delle ferie", example = "2025-07-16")
+    private LocalDate startDate;
+
+    @Schema(description = "Data di fine delle ferie", example = "2025-07-19")
+    private LocalDate endDate;
+
+    @Schema(description = "Stato della richiesta ferie", example = "APPROVED")
+    private Status status;
+
+    @Schema(description = "ID dell'evento associato", example = "4")
+    private Long eventId;
+
+    @Schema(description = "Titolo dell'evento associato", example = "Chiusura estiva")
+    private String eventTitle;
+
+    @Schema(description = "ID dell'utente richiedente", example = "7")
+    private Long userId;
+
+    @Schema(description = "Nome dell'utente richiedente", example = "Mario Rossi")
+    private String userName;
+
+    @Schema(description = "Email dell'utente richiedente", example = "mario.rossi@example.com")
+    private String userEmail;
+
+    public List<Object> csvValues() {
+        return Arrays.asList(id, title, startDate, endDate, status, eventId, eventTitle, userId, userName, userEmail);
+    }
+}
@@ -0,0 +1,28 @@
+package com.gestioneEventi.dto.ferie;
+
+import java.time.LocalDate;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "Numero di membri assenti per ogni giorno di un intervallo, per un gruppo")
+public class GroupAvailabilityDTO {
+
+    @Schema(description = "ID del gruppo", example = "1")
+    private Long groupId;
+
+    @Schema(description = "Primo giorno dell'intervallo", example = "2025-08-01")
+    private LocalDate from;
+
+    @Schema(description = "Ultimo giorno dell'intervallo", example = "2025-08-05")
+    private LocalDate to;
+
+    @Schema(description = "Numero totale di membri del gruppo", example = "10")
+    private long totalMembers;
+
+    @Schema(description = "Membri assenti per giorno, a partire da from (indice 0 = from)", example = "[0, 2, 3, 3, 1]")
+    private int[] absentPerDay;
+}
@@ -0,0 +1,32 @@
+package com.gestioneEventi.dto.ferie;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "Copertura di un gruppo in un intervallo di date in base alle ferie approvate")
+public class GroupCoverageDTO {
+
+    @Schema(description = "ID del gruppo", example = "1")
+    private Long groupId;
+
+    @Schema(description = "Primo giorno dell'intervallo", example = "2025-08-01")
+    private LocalDate from;
+
+    @Schema(description = "Ultimo giorno dell'intervallo", example = "2025-08-15")
+    private LocalDate to;
+
+    @Schema(description = "Numero totale di membri del gruppo", example = "10")
+    private long totalMembers;
+
+    @Schema(description = "Numero di membri senza ferie nell'intervallo", example = "7")
+    private long availableMembers;
+
+    @Schema(description = "Ferie dei membri che si sovrappongono all'intervallo")
+    private List<AbsenceDTO> absences;
+}
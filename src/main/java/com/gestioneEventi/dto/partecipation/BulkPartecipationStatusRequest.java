@@ -0,0 +1,27 @@
+package com.gestioneEventi.dto.partecipation;
+
+import java.util.List;
+
+import com.gestioneEventi.models.PartecipationStatus;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Richiesta di aggiornamento massivo dello stato di partecipazione, per lista di ID oppure per evento")
+public class BulkPartecipationStatusRequest {
+
+    @Schema(
+        description = "Nuovo stato di accettazione (PENDING = in sospeso, ACCEPTED = accettato, REJECTED = rifiutato)",
+        example = "ACCEPTED",
+        allowableValues = {"PENDING", "ACCEPTED", "REJECTED"},
+        required = true
+    )
+    private PartecipationStatus status;
+
+    @Schema(description = "ID delle partecipazioni da aggiornare (alternativo a eventId)", example = "[1, 2, 3]")
+    private List<Long> ids;
+
+    @Schema(description = "ID dell'evento: aggiorna tutte le partecipazioni ancora in sospeso (alternativo a ids)", example = "4")
+    private Long eventId;
+}
@@ -0,0 +1,25 @@
+package com.gestioneEventi.dto.partecipation;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Numero di partecipazioni di un evento per stato")
+public class PartecipationCountsDTO {
+
+    @Schema(description = "ID dell'evento", example = "4")
+    private Long eventId;
+
+    @Schema(description = "Partecipazioni in sospeso", example = "12")
+    private long pending;
+
+    @Schema(description = "Partecipazioni accettate", example = "30")
+    private long accepted;
+
+    @Schema(description = "Partecipazioni rifiutate", example = "3")
+    private long rejected;
+
+    public PartecipationCountsDTO(Long eventId) {
+        this.eventId = eventId;
+    }
+}
@@ -0,0 +1,44 @@
+package com.gestioneEventi.dto.partecipation;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.gestioneEventi.models.PartecipationStatus;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "Riga piatta dell'export delle partecipazioni")
+public class PartecipationExportRow {
+
+    public static final List<String> CSV_HEADER = List.of(
+            "id", "status", "eventId", "eventTitle", "userId", "userName", "userEmail");
+
+    @Schema(description = "ID della partecipazione", example = "1")
+    private Long id;
+
+    @Schema(description = "Stato della partecipazione", example = "ACCEPTED")
+    private PartecipationStatus status;
+
+    @Schema(description = "ID dell'evento", example = "4")
+    private Long eventId;
+
+    @Schema(description = "Titolo dell'evento", example = "Cena aziendale")
+    private String eventTitle;
+
+    @Schema(description = "ID dell'utente partecipante", example = "7")
+    private Long userId;
+
+    @Schema(description = "Nome dell'utente partecipante", example = "Mario Rossi")
+    private String userName;
+
+    @Schema(description = "Email dell'utente partecipante", example = "mario.rossi@example.com")
+    private String userEmail;
+
+    public List<Object> csvValues() {
+        return Arrays.asList(id, status, eventId, eventTitle, userId, userName, userEmail);
+    }
+}
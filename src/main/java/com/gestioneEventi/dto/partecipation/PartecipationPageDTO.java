@@ -0,0 +1,25 @@
+package com.gestioneEventi.dto.partecipation;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "Pagina di partecipazioni")
+public class PartecipationPageDTO {
+
+    @Schema(description = "Partecipazioni della pagina, ordinate per evento e ID (per utente) o per stato e ID (per evento)")
+    private List<PartecipationSummaryDTO> items;
+
+    @Schema(description = "Numero della pagina (a partire da 0)", example = "0")
+    private int page;
+
+    @Schema(description = "Dimensione della pagina", example = "50")
+    private int size;
+
+    @Schema(description = "Indica se esiste una pagina successiva", example = "true")
+    private boolean hasNext;
+}
@@ -0,0 +1,50 @@
+package com.gestioneEventi.dto.partecipation;
+
+import java.time.LocalDate;
+
+import com.gestioneEventi.models.EventType;
+import com.gestioneEventi.models.PartecipationStatus;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Flat view of a participation built by a JPQL constructor expression,
+ * so neither the event graph nor the user's groups are loaded.
+ */
+@Data
+@AllArgsConstructor
+@Schema(description = "Riepilogo di una partecipazione senza il dettaglio completo di evento e utente")
+public class PartecipationSummaryDTO {
+
+    @Schema(description = "ID della partecipazione", example = "1")
+    private Long id;
+
+    @Schema(description = "Stato della partecipazione", example = "ACCEPTED")
+    private PartecipationStatus status;
+
+    @Schema(description = "ID dell'evento", example = "4")
+    private Long eventId;
+
+    @Schema(description = "Titolo dell'evento", example = "Cena aziendale")
+    private String eventTitle;
+
+    @Schema(description = "Data di inizio dell'evento", example = "2025-07-15")
+    private LocalDate eventStartDate;
+
+    @Schema(description = "Data di fine dell'evento", example = "2025-07-15")
+    private LocalDate eventEndDate;
+
+    @Schema(description = "Tipo di evento", example = "GENERICO")
+    private EventType eventType;
+
+    @Schema(description = "ID dell'utente partecipante", example = "7")
+    private Long userId;
+
+    @Schema(description = "Nome dell'utente partecipante", example = "Mario Rossi")
+    private String userName;
+
+    @Schema(description = "Email dell'utente partecipante", example = "mario.rossi@example.com")
+    private String userEmail;
+}
@@ -0,0 +1,22 @@
+package com.gestioneEventi.dto.teambuilding;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "Finestra di date candidata per un evento TEAM_BUILDING")
+public class DateWindowDTO {
+
+    @Schema(description = "Data di inizio della finestra", example = "2025-12-02")
+    private LocalDate startDate;
+
+    @Schema(description = "Data di fine della finestra", example = "2025-12-03")
+    private LocalDate endDate;
+
+    @Schema(description = "Numero di partecipanti le cui proposte coprono interamente la finestra", example = "12")
+    private long participants;
+}
@@ -121,6 +121,21 @@ public class GlobalExceptionHandler {
                 return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         }
 
+        /**
+         * Gestisce servizi esterni non raggiungibili (503)
+         */
+        @ExceptionHandler(ServiceUnavailableException.class)
+        public ResponseEntity<ErrorResponse> handleServiceUnavailableException(
+                        ServiceUnavailableException ex,
+                        WebRequest request) {
+                ErrorResponse error = new ErrorResponse(
+                                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                                "Service Unavailable",
+                                ex.getMessage(),
+                                getPath(request));
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+        }
+
         /**
          * Gestisce risorse non trovate (404)
          */
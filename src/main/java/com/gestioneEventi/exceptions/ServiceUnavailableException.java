@@ -0,0 +1,12 @@
+package com.gestioneEventi.exceptions;
+
+/**
+ * Eccezione lanciata quando un servizio esterno necessario all'operazione non è raggiungibile
+ * Es: directory aziendale irraggiungibile durante la verifica dei dipendenti
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
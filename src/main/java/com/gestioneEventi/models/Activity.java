@@ -18,10 +18,11 @@ public class Activity {
 
     /**
      * Unique identifier for the activity.
-     * Auto-generated by the database.
+     * Generated from a pooled sequence so that inserts can be JDBC-batched.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activity_seq")
+    @SequenceGenerator(name = "activity_seq", sequenceName = "activity_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -22,14 +22,26 @@ import lombok.Setter;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_event_start_date_id", columnList = "start_date, id"),
+    @Index(name = "idx_event_end_date_start_date", columnList = "end_date, start_date")
+})
+@NamedEntityGraph(name = Event.WITH_INVITEES,
+    attributeNodes = { @NamedAttributeNode("invitedUsers"), @NamedAttributeNode("createdBy") })
 public class Event {
 
+    /**
+     * Fetch plan that loads the event with its creator and invited users (groups excluded).
+     */
+    public static final String WITH_INVITEES = "Event.withInvitees";
+
     /**
      * Unique identifier for the event.
-     * Auto-generated by the database.
+     * Generated from a pooled sequence so that inserts can be JDBC-batched.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_seq")
+    @SequenceGenerator(name = "event_seq", sequenceName = "event_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -16,14 +16,19 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_ferie_start_end", columnList = "start_date, end_date"),
+    @Index(name = "idx_ferie_end_start", columnList = "end_date, start_date")
+})
 public class Ferie {
 
     /**
      * Unique identifier for the vacation request.
-     * Auto-generated by the database.
+     * Generated from a pooled sequence so that inserts can be JDBC-batched.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ferie_seq")
+    @SequenceGenerator(name = "ferie_seq", sequenceName = "ferie_seq", allocationSize = 50)
     private Long id;
 
     /**
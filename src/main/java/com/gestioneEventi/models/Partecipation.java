@@ -5,7 +5,10 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,15 +22,20 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_partecipation_event_status", columnList = "event_id, status"),
+    @Index(name = "idx_partecipation_user_event", columnList = "user_id, event_id")
+})
 @Schema(description = "Modello di partecipazione di un utente a un evento")
 public class Partecipation {
 
     /**
      * Unique identifier for the participation record.
-     * Auto-generated by the database.
+     * Generated from a pooled sequence so that inserts can be JDBC-batched.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "partecipation_seq")
+    @SequenceGenerator(name = "partecipation_seq", sequenceName = "partecipation_seq", allocationSize = 50)
     @Schema(description = "ID univoco della partecipazione", example = "1")
     private Long id;
 
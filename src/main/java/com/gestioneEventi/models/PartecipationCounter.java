@@ -0,0 +1,45 @@
+package com.gestioneEventi.models;
+
+import java.io.Serializable;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Materialized number of participations per event and status.
+ * Kept in sync by {@code PartecipationService} on every create, update and delete,
+ * so dashboards can read RSVP totals without loading the participations.
+ *
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "partecipation_counter")
+public class PartecipationCounter {
+
+    /**
+     * Event and status the counter refers to; the primary key index serves lookups by event.
+     */
+    @EmbeddedId
+    private Key id;
+
+    /**
+     * Number of participations of the event currently in the status.
+     */
+    private long total;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "event_id")
+        private Long eventId;
+
+        private PartecipationStatus status;
+    }
+}
@@ -19,10 +19,11 @@ public class TeamBuildingPartecipation {
 
     /**
      * Unique identifier for the team building participation.
-     * Auto-generated by the database.
+     * Generated from a pooled sequence so that inserts can be JDBC-batched.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_building_partecipation_seq")
+    @SequenceGenerator(name = "team_building_partecipation_seq", sequenceName = "team_building_partecipation_seq", allocationSize = 50)
     private Long id;
 
     /**
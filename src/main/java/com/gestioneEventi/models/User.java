@@ -3,9 +3,12 @@ package com.gestioneEventi.models;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.hibernate.annotations.BatchSize;
+
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
@@ -19,10 +22,17 @@ import lombok.ToString;
 @AllArgsConstructor
 @NoArgsConstructor
 @ToString(exclude = "groups")
+@EqualsAndHashCode(exclude = "groups")
 @Entity
 @Table(name = "users")
+@NamedEntityGraph(name = User.WITH_GROUPS, attributeNodes = @NamedAttributeNode("groups"))
 public class User {
 
+    /**
+     * Fetch plan that loads the user together with its group memberships.
+     */
+    public static final String WITH_GROUPS = "User.withGroups";
+
     /**
      * Unique identifier for the user.
      * Auto-generated by the database.
@@ -56,10 +66,11 @@ public class User {
     /**
      * Groups that this user belongs to.
      * Many-to-many relationship with UserGroup.
-     * Uses eager fetching for immediate access to group information.
-     * Note: EAGER fetch is temporary - may be changed to LAZY if performance issues occur.
+     * Lazily fetched: paths that need groups use the {@link #WITH_GROUPS} entity graph,
+     * other accesses are batch-loaded to avoid one query per user.
      */
-    @ManyToMany(fetch = FetchType.EAGER) // EAGER temporaneo, se il server crasha ancora alla creazione di un evento si fixa il service
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @JoinTable(name = "user_group_membership",
         joinColumns = @JoinColumn(name = "user_id"),
         inverseJoinColumns = @JoinColumn(name = "group_id"))
@@ -3,6 +3,10 @@ package com.gestioneEventi.repositories;
 import com.gestioneEventi.models.Activity;
 import com.gestioneEventi.models.Event;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
 
 /**
@@ -19,4 +23,14 @@ public interface ActivityRepository extends JpaRepository<Activity, Long> {
      * @return List of activities for the specified event
      */
     List<Activity> findByEvent(Event event);
+
+    /**
+     * Deletes all activities of an event with a single set-based statement.
+     *
+     * @param eventId The ID of the event whose activities to delete
+     * @return Number of deleted activities
+     */
+    @Modifying
+    @Query("DELETE FROM Activity a WHERE a.event.id = :eventId")
+    int deleteAllByEventId(@Param("eventId") Long eventId);
 }
@@ -1,12 +1,18 @@
 package com.gestioneEventi.repositories;
 
+import com.gestioneEventi.dto.event.EventSummaryDTO;
 import com.gestioneEventi.models.Event;
+import com.gestioneEventi.models.EventType;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -21,23 +27,24 @@ import org.springframework.stereotype.Repository;
 public interface EventRepository extends JpaRepository<Event, Long> {
 
     /**
-     * Finds all events with eager loading of invited users, creator, and creator's role.
+     * Finds all events with eager loading of invited users and creator.
      * Uses EntityGraph to optimize database queries and prevent N+1 problems.
+     * User groups are not part of the graph and are batch-loaded only if read.
      *
      * @return List of all events with related entities loaded
      */
-    @EntityGraph(attributePaths = { "invitedUsers", "createdBy", "createdBy.role" })
+    @EntityGraph(Event.WITH_INVITEES)
     @Override
     List<Event> findAll();
 
     /**
-     * Finds an event by ID with eager loading of invited users, creator, and creator's role.
+     * Finds an event by ID with eager loading of invited users and creator.
      * Uses EntityGraph to optimize database queries.
      *
      * @param id The ID of the event to find
      * @return Optional containing the event if found, with related entities loaded
      */
-    @EntityGraph(attributePaths = { "invitedUsers", "createdBy", "createdBy.role" })
+    @EntityGraph(Event.WITH_INVITEES)
     @Override
     Optional<Event> findById(Long id);
 
@@ -55,4 +62,133 @@ public interface EventRepository extends JpaRepository<Event, Long> {
                 WHERE iu.id = :id
             """)
     List<Event> findAllByUserId(@Param("id") Long id);
+
+    /**
+     * Returns only the type of an event, without loading the entity or its invited users.
+     *
+     * @param id The ID of the event
+     * @return Optional containing the event type if the event exists
+     */
+    @Query("SELECT e.eventType FROM Event e WHERE e.id = :id")
+    Optional<EventType> findEventTypeById(@Param("id") Long id);
+
+    /**
+     * Deletes the invited users join rows of an event with a single statement.
+     * Native because the event_users join table is not mapped as an entity.
+     *
+     * @param eventId The ID of the event
+     * @return Number of deleted join rows
+     */
+    @Modifying
+    @Query(value = "DELETE FROM event_users WHERE event_id = :eventId", nativeQuery = true)
+    int deleteInvitedUsersByEventId(@Param("eventId") Long eventId);
+
+    /**
+     * Deletes an event row with a single statement, without loading it first.
+     *
+     * @param id The ID of the event
+     * @return Number of deleted events
+     */
+    @Modifying
+    @Query("DELETE FROM Event e WHERE e.id = :id")
+    int deleteEventById(@Param("id") Long id);
+
+    /**
+     * Returns a summary of every event, with the number of invited users computed in SQL.
+     * The invited users join table is only counted, never hydrated.
+     *
+     * @return List of event summaries ordered by start date
+     */
+    @Query("""
+                SELECT new com.gestioneEventi.dto.event.EventSummaryDTO(
+                    e.id, e.title, e.startDate, e.endDate, e.eventType, SIZE(e.invitedUsers))
+                FROM Event e
+                ORDER BY e.startDate, e.id
+            """)
+    List<EventSummaryDTO> findAllSummaries();
+
+    /**
+     * Returns a summary of the events where a specific user is invited.
+     *
+     * @param id The ID of the invited user
+     * @return List of event summaries ordered by start date
+     */
+    @Query("""
+                SELECT new com.gestioneEventi.dto.event.EventSummaryDTO(
+                    e.id, e.title, e.startDate, e.endDate, e.eventType, SIZE(e.invitedUsers))
+                FROM Event e
+                JOIN e.invitedUsers iu
+                WHERE iu.id = :id
+                ORDER BY e.startDate, e.id
+            """)
+    List<EventSummaryDTO> findSummariesByUserId(@Param("id") Long id);
+
+    /**
+     * Finds all events with the given IDs, with invited users and creator loaded.
+     * Used as the second step of keyset pagination, after the page of IDs has been selected.
+     *
+     * @param ids The IDs of the events to load
+     * @return List of matching events, in no particular order
+     */
+    @EntityGraph(Event.WITH_INVITEES)
+    List<Event> findAllByIdIn(Collection<Long> ids);
+
+    /**
+     * Finds the IDs of the events already running on the first day of a window (started before it,
+     * ending on or after it), after an optional keyset cursor, ordered by start date and ID.
+     * Backed by the (end_date, start_date) index: the range only covers events ending on or after
+     * {@code from}, i.e. current and future events, never the older history.
+     *
+     * @param from First day of the window (inclusive)
+     * @param eventType Optional event type filter, null for all types
+     * @param afterStartDate Start date of the last event of the previous page, null for the first page
+     * @param afterId ID of the last event of the previous page, null for the first page
+     * @param pageable Page size limit (page number is always 0)
+     * @return Ordered list of event IDs
+     */
+    @Query("""
+                SELECT e.id
+                FROM Event e
+                WHERE e.endDate >= :from
+                AND e.startDate < :from
+                AND (:eventType IS NULL OR e.eventType = :eventType)
+                AND (:afterStartDate IS NULL OR e.startDate > :afterStartDate
+                    OR (e.startDate = :afterStartDate AND e.id > :afterId))
+                ORDER BY e.startDate, e.id
+            """)
+    List<Long> findIdsOngoingAt(@Param("from") LocalDate from,
+            @Param("eventType") EventType eventType,
+            @Param("afterStartDate") LocalDate afterStartDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * Finds the IDs of the events starting inside a window, after an optional keyset cursor,
+     * ordered by start date and ID. Backed by the (start_date, id) index: the range is bounded on
+     * both sides and read in index order, so the scan stops after one page.
+     *
+     * @param from First day of the window (inclusive)
+     * @param to Last day of the window (inclusive)
+     * @param eventType Optional event type filter, null for all types
+     * @param afterStartDate Start date of the last event of the previous page, null for the first page
+     * @param afterId ID of the last event of the previous page, null for the first page
+     * @param pageable Page size limit (page number is always 0)
+     * @return Ordered list of event IDs
+     */
+    @Query("""
+                SELECT e.id
+                FROM Event e
+                WHERE e.startDate >= :from
+                AND e.startDate <= :to
+                AND (:eventType IS NULL OR e.eventType = :eventType)
+                AND (:afterStartDate IS NULL OR e.startDate > :afterStartDate
+                    OR (e.startDate = :afterStartDate AND e.id > :afterId))
+                ORDER BY e.startDate, e.id
+            """)
+    List<Long> findIdsStartingInWindow(@Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("eventType") EventType eventType,
+            @Param("afterStartDate") LocalDate afterStartDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
 }
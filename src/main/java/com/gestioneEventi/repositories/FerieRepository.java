@@ -1,28 +1,181 @@
 package com.gestioneEventi.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import com.gestioneEventi.models.Event;
+import com.gestioneEventi.dto.ferie.AbsenceDTO;
+import com.gestioneEventi.dto.ferie.FerieExportRow;
+import com.gestioneEventi.models.EventType;
 import com.gestioneEventi.models.Ferie;
+import com.gestioneEventi.models.Status;
+import com.gestioneEventi.utils.StreamingExporter;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface FerieRepository extends JpaRepository<Ferie, Long> {
     List<Ferie> findByCreatedByEmail(String email);
 
     @Query("""
-            SELECT CASE WHEN COUNT(iu) > 0 THEN true ELSE false END
+            SELECT e.eventType AS eventType, e.startDate AS startDate, e.endDate AS endDate
             FROM Event e
             JOIN e.invitedUsers iu
             WHERE e.id = :eventId
             AND iu.id = :userId
             AND e.startDate > CURRENT_DATE
             """)
-    boolean canUserRequestFerieForEvent(@Param("eventId") Long eventId, @Param("userId") Long userId);
+    Optional<RequestableEvent> findRequestableEvent(@Param("eventId") Long eventId, @Param("userId") Long userId);
+
+    /**
+     * Approved vacations already running on {@code from} (started before it, ending on or after it).
+     * Range scan on the (end_date, start_date) index, bounded by {@code end_date >= from}:
+     * vacations that ended before the range are never read, whatever the size of the history.
+     */
+    @Query("""
+            SELECT new com.gestioneEventi.dto.ferie.AbsenceDTO(
+                f.id, u.id, u.name, u.email, f.startDate, f.endDate)
+            FROM Ferie f
+            JOIN f.createdBy u
+            WHERE f.endDate >= :from
+            AND f.startDate < :from
+            AND f.status = com.gestioneEventi.models.Status.APPROVED
+            ORDER BY f.startDate, f.id
+            """)
+    List<AbsenceDTO> findApprovedOngoingAt(@Param("from") LocalDate from);
+
+    /**
+     * Approved vacations starting inside the range.
+     * Range scan on the (start_date, end_date) index, bounded on both sides by {@code from} and {@code to}.
+     */
+    @Query("""
+            SELECT new com.gestioneEventi.dto.ferie.AbsenceDTO(
+                f.id, u.id, u.name, u.email, f.startDate, f.endDate)
+            FROM Ferie f
+            JOIN f.createdBy u
+            WHERE f.startDate >= :from
+            AND f.startDate <= :to
+            AND f.status = com.gestioneEventi.models.Status.APPROVED
+            ORDER BY f.startDate, f.id
+            """)
+    List<AbsenceDTO> findApprovedStartingIn(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("""
+            SELECT new com.gestioneEventi.dto.ferie.AbsenceDTO(
+                f.id, u.id, u.name, u.email, f.startDate, f.endDate)
+            FROM Ferie f
+            JOIN f.createdBy u
+            JOIN u.groups g
+            WHERE g.id = :groupId
+            AND f.endDate >= :from
+            AND f.startDate < :from
+            AND f.status = com.gestioneEventi.models.Status.APPROVED
+            ORDER BY f.startDate, f.id
+            """)
+    List<AbsenceDTO> findApprovedOngoingAtInGroup(@Param("from") LocalDate from, @Param("groupId") Long groupId);
+
+    @Query("""
+            SELECT new com.gestioneEventi.dto.ferie.AbsenceDTO(
+                f.id, u.id, u.name, u.email, f.startDate, f.endDate)
+            FROM Ferie f
+            JOIN f.createdBy u
+            JOIN u.groups g
+            WHERE g.id = :groupId
+            AND f.startDate >= :from
+            AND f.startDate <= :to
+            AND f.status = com.gestioneEventi.models.Status.APPROVED
+            ORDER BY f.startDate, f.id
+            """)
+    List<AbsenceDTO> findApprovedStartingInInGroup(@Param("from") LocalDate from, @Param("to") LocalDate to,
+            @Param("groupId") Long groupId);
+
+    @Query("SELECT f.id AS id, f.status AS status FROM Ferie f WHERE f.id IN :ids")
+    List<FerieStatus> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            SELECT f.id AS id, f.status AS status
+            FROM Ferie f
+            WHERE (:eventId IS NULL OR f.event.id = :eventId)
+            AND (:from IS NULL OR f.endDate >= :from)
+            AND (:to IS NULL OR f.startDate <= :to)
+            AND (:groupId IS NULL OR f.createdBy.id IN (
+                SELECT u.id FROM UserGroup g JOIN g.members u WHERE g.id = :groupId))
+            ORDER BY f.id
+            """)
+    List<FerieStatus> findStatusesByFilter(@Param("eventId") Long eventId, @Param("groupId") Long groupId,
+            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Sets the status of the given requests, only where the status is still {@code expected}.
+     * Rows changed by someone else since they were read are left untouched.
+     *
+     * @return Number of rows actually updated
+     */
+    @Modifying
+    @Query("UPDATE Ferie f SET f.status = :status WHERE f.id IN :ids AND f.status = :expected")
+    int updateStatusByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("expected") Status expected,
+            @Param("status") Status status);
+
+    /**
+     * Sets the status of the given requests, only where they are still pending (null status).
+     *
+     * @return Number of rows actually updated
+     */
+    @Modifying
+    @Query("UPDATE Ferie f SET f.status = :status WHERE f.id IN :ids AND f.status IS NULL")
+    int updatePendingStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("status") Status status);
+
+    /**
+     * Streams every vacation request as a flat row for export. Must be consumed inside a
+     * transaction and closed; rows are streamed by the driver one at a time
+     * (see {@link StreamingExporter#MYSQL_STREAMING_FETCH_SIZE}).
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingExporter.MYSQL_STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new com.gestioneEventi.dto.ferie.FerieExportRow(
+                f.id, f.title, f.startDate, f.endDate, f.status, e.id, e.title, u.id, u.name, u.email)
+            FROM Ferie f
+            LEFT JOIN f.event e
+            LEFT JOIN f.createdBy u
+            ORDER BY f.id
+            """)
+    Stream<FerieExportRow> streamAllForExport();
+
+    @Modifying
+    @Query("DELETE FROM Ferie f WHERE f.event.id = :eventId")
+    int deleteAllByEventId(@Param("eventId") Long eventId);
+
+    /**
+     * Current status of a vacation request.
+     */
+    interface FerieStatus {
+        Long getId();
+
+        Status getStatus();
+    }
+
+    /**
+     * Type and dates of an event the user is invited to and that hasn't started yet.
+     */
+    interface RequestableEvent {
+        EventType getEventType();
+
+        LocalDate getStartDate();
 
-    void deleteAllByEvent(Event event);
-}
\ No newline at end of file
+        LocalDate getEndDate();
+    }
+}
@@ -0,0 +1,33 @@
+package com.gestioneEventi.repositories;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.gestioneEventi.models.PartecipationCounter;
+
+public interface PartecipationCounterRepository extends JpaRepository<PartecipationCounter, PartecipationCounter.Key> {
+
+    @Query("SELECT c FROM PartecipationCounter c WHERE c.id.eventId IN :eventIds")
+    List<PartecipationCounter> findAllByEventIdIn(@Param("eventIds") Collection<Long> eventIds);
+
+    /**
+     * Atomically adds {@code delta} to the counter of an event and status, creating it if missing.
+     * The status is bound by ordinal, matching the column mapping of the enum.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO partecipation_counter (event_id, status, total)
+            VALUES (:eventId, :status, :delta)
+            ON DUPLICATE KEY UPDATE total = total + :delta
+            """, nativeQuery = true)
+    int adjust(@Param("eventId") Long eventId, @Param("status") int status, @Param("delta") long delta);
+
+    @Modifying
+    @Query("DELETE FROM PartecipationCounter c WHERE c.id.eventId = :eventId")
+    int deleteAllByEventId(@Param("eventId") Long eventId);
+}
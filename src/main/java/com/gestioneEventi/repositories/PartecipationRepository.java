@@ -1,11 +1,28 @@
 package com.gestioneEventi.repositories;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-import com.gestioneEventi.models.Event;
+import com.gestioneEventi.dto.partecipation.PartecipationExportRow;
+import com.gestioneEventi.dto.partecipation.PartecipationSummaryDTO;
 import com.gestioneEventi.models.Partecipation;
+import com.gestioneEventi.models.PartecipationStatus;
+import com.gestioneEventi.utils.StreamingExporter;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 public interface PartecipationRepository extends JpaRepository<Partecipation, Long> {
 
@@ -15,5 +32,139 @@ public interface PartecipationRepository extends JpaRepository<Partecipation, Lo
 
     List<Partecipation> findByUserId(Long userId);
 
-    void deleteAllByEvent(Event event);
+    /**
+     * Page of a user's participations as flat projections, ordered by event then participation id.
+     * The (user_id, event_id) index, which carries the primary key, returns rows already in that order,
+     * so each page reads only its own rows instead of sorting all of the user's participations.
+     */
+    @Query("""
+            SELECT new com.gestioneEventi.dto.partecipation.PartecipationSummaryDTO(
+                p.id, p.status, e.id, e.title, e.startDate, e.endDate, e.eventType, u.id, u.name, u.email)
+            FROM Partecipation p
+            JOIN p.event e
+            JOIN p.user u
+            WHERE p.user.id = :userId
+            ORDER BY p.event.id, p.id
+            """)
+    Slice<PartecipationSummaryDTO> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Page of an event's participations as flat projections, ordered by status then participation id,
+     * the order of the (event_id, status) index.
+     */
+    @Query("""
+            SELECT new com.gestioneEventi.dto.partecipation.PartecipationSummaryDTO(
+                p.id, p.status, e.id, e.title, e.startDate, e.endDate, e.eventType, u.id, u.name, u.email)
+            FROM Partecipation p
+            JOIN p.event e
+            JOIN p.user u
+            WHERE p.event.id = :eventId
+            ORDER BY p.status, p.id
+            """)
+    Slice<PartecipationSummaryDTO> findSummariesByEventId(@Param("eventId") Long eventId, Pageable pageable);
+
+    /**
+     * Page of an event's participations in one status as flat projections, ordered by participation id.
+     * Served entirely by the (event_id, status) index.
+     */
+    @Query("""
+            SELECT new com.gestioneEventi.dto.partecipation.PartecipationSummaryDTO(
+                p.id, p.status, e.id, e.title, e.startDate, e.endDate, e.eventType, u.id, u.name, u.email)
+            FROM Partecipation p
+            JOIN p.event e
+            JOIN p.user u
+            WHERE p.event.id = :eventId
+            AND p.status = :status
+            ORDER BY p.id
+            """)
+    Slice<PartecipationSummaryDTO> findSummariesByEventIdAndStatus(@Param("eventId") Long eventId,
+            @Param("status") PartecipationStatus status, Pageable pageable);
+
+    /**
+     * Streams every participation as a flat row for export. Must be consumed inside a
+     * transaction and closed; rows are streamed by the driver one at a time
+     * (see {@link StreamingExporter#MYSQL_STREAMING_FETCH_SIZE}).
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingExporter.MYSQL_STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new com.gestioneEventi.dto.partecipation.PartecipationExportRow(
+                p.id, p.status, e.id, e.title, u.id, u.name, u.email)
+            FROM Partecipation p
+            LEFT JOIN p.event e
+            LEFT JOIN p.user u
+            ORDER BY p.id
+            """)
+    Stream<PartecipationExportRow> streamAllForExport();
+
+    @Query("SELECT p.id AS id, p.status AS status, p.user.id AS userId, p.event.id AS eventId FROM Partecipation p WHERE p.id IN :ids")
+    List<PartecipationOwnership> findOwnershipByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            SELECT p.id FROM Partecipation p
+            WHERE p.event.id = :eventId
+            AND p.status = com.gestioneEventi.models.PartecipationStatus.PENDING
+            AND (:privileged = true OR p.user.id = :userId)
+            ORDER BY p.id
+            """)
+    List<Long> findPendingIdsByEventId(@Param("eventId") Long eventId, @Param("userId") Long userId,
+            @Param("privileged") boolean privileged);
+
+    /**
+     * Loads a participation and locks its row until the end of the transaction, so that the
+     * status read is still current when the RSVP counters are adjusted.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Partecipation p WHERE p.id = :id")
+    Optional<Partecipation> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Sets the status of the given participations, only where the status is still {@code expected}
+     * and the user may modify them (privileged or owner). Rows changed by someone else since they
+     * were read are left untouched, so the returned count is the exact counter delta.
+     *
+     * @return Number of rows actually updated
+     */
+    @Modifying
+    @Query("""
+            UPDATE Partecipation p SET p.status = :status
+            WHERE p.id IN :ids
+            AND (p.status = :expected OR (:expected IS NULL AND p.status IS NULL))
+            AND (:privileged = true OR p.user.id = :userId)
+            """)
+    int updateStatusByIdInAndStatus(@Param("ids") Collection<Long> ids,
+            @Param("expected") PartecipationStatus expected, @Param("status") PartecipationStatus status,
+            @Param("userId") Long userId, @Param("privileged") boolean privileged);
+
+    /**
+     * Sets the status of all PENDING participations of an event that the user may modify.
+     */
+    @Modifying
+    @Query("""
+            UPDATE Partecipation p SET p.status = :status
+            WHERE p.event.id = :eventId
+            AND p.status = com.gestioneEventi.models.PartecipationStatus.PENDING
+            AND (:privileged = true OR p.user.id = :userId)
+            """)
+    int updatePendingStatusByEventId(@Param("eventId") Long eventId, @Param("status") PartecipationStatus status,
+            @Param("userId") Long userId, @Param("privileged") boolean privileged);
+
+    @Modifying
+    @Query("DELETE FROM Partecipation p WHERE p.event.id = :eventId")
+    int deleteAllByEventId(@Param("eventId") Long eventId);
+
+    /**
+     * Status, owner and event of a participation, used to report per-id outcomes of bulk updates.
+     */
+    interface PartecipationOwnership {
+        Long getId();
+
+        PartecipationStatus getStatus();
+
+        Long getUserId();
+
+        Long getEventId();
+    }
 }
@@ -4,7 +4,11 @@ import com.gestioneEventi.models.Event;
 import com.gestioneEventi.models.TeamBuildingPartecipation;
 import com.gestioneEventi.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface TeamBuildingPartecipationRepository extends JpaRepository<TeamBuildingPartecipation, Long> {
@@ -15,5 +19,58 @@ public interface TeamBuildingPartecipationRepository extends JpaRepository<TeamB
 
     List<TeamBuildingPartecipation> findByUserAndEvent(User user, Event event);
 
-    void deleteAllByEvent(Event event);
+    @Query("""
+            SELECT p.chosenActivityId AS activityId, COUNT(DISTINCT p.user.id) AS votes
+            FROM TeamBuildingPartecipation p
+            WHERE p.event.id = :eventId
+            GROUP BY p.chosenActivityId
+            """)
+    List<ActivityVotes> countVotesByActivity(@Param("eventId") Long eventId);
+
+    @Query("""
+            SELECT p.event.id AS eventId, p.chosenActivityId AS activityId, COUNT(DISTINCT p.user.id) AS votes
+            FROM TeamBuildingPartecipation p
+            GROUP BY p.event.id, p.chosenActivityId
+            """)
+    List<EventActivityVotes> countVotesByEventAndActivity();
+
+    @Query("""
+            SELECT p.user.id AS userId, p.chosenActivityId AS activityId, p.startDate AS startDate, p.endDate AS endDate
+            FROM TeamBuildingPartecipation p
+            WHERE p.event.id = :eventId
+            """)
+    List<ProposedRange> findProposedRangesByEventId(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query("DELETE FROM TeamBuildingPartecipation p WHERE p.event.id = :eventId")
+    int deleteAllByEventId(@Param("eventId") Long eventId);
+
+    /**
+     * Number of distinct users who chose an activity.
+     */
+    interface ActivityVotes {
+        Long getActivityId();
+
+        long getVotes();
+    }
+
+    /**
+     * Number of distinct users who chose an activity, together with the owning event.
+     */
+    interface EventActivityVotes extends ActivityVotes {
+        Long getEventId();
+    }
+
+    /**
+     * Date range proposed by a user, without loading the participation entity.
+     */
+    interface ProposedRange {
+        Long getUserId();
+
+        Long getActivityId();
+
+        LocalDate getStartDate();
+
+        LocalDate getEndDate();
+    }
 }
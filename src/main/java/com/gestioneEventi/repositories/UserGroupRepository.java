@@ -16,6 +16,19 @@ public interface UserGroupRepository extends JpaRepository<UserGroup, Long> {
     @Query("SELECT g FROM UserGroup g WHERE g.id = :id")
     Optional<UserGroup> findById(Long id);
 
+    /**
+     * Loads a group with its members and the members' own groups in a single statement.
+     * Fetch joins are spelled out because a nested entity graph subgraph only adds the join
+     * table to the query and leaves the members' groups to a second, batched select.
+     */
+    @Query("""
+            SELECT g FROM UserGroup g
+            LEFT JOIN FETCH g.members m
+            LEFT JOIN FETCH m.groups
+            WHERE g.id = :id
+            """)
+    Optional<UserGroup> findWithMembersById(@Param("id") Long id);
+
     @Query("""
             SELECT g FROM UserGroup g
             JOIN g.members u
@@ -23,4 +36,7 @@ public interface UserGroupRepository extends JpaRepository<UserGroup, Long> {
             """)
 
     List<UserGroup> findAllByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT COUNT(u) FROM UserGroup g JOIN g.members u WHERE g.id = :groupId")
+    long countMembers(@Param("groupId") Long groupId);
 }
\ No newline at end of file
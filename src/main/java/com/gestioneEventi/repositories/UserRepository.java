@@ -3,6 +3,7 @@ package com.gestioneEventi.repositories;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -26,22 +27,35 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByEmail(String email);
 
+    /**
+     * Finds a user by their email address, including their groups.
+     * Used where the user is returned to the client together with its group names.
+     *
+     * @param email The email address to search for
+     * @return Optional containing the user with groups loaded, empty otherwise
+     */
+    @EntityGraph(User.WITH_GROUPS)
+    @Query("SELECT u FROM User u WHERE u.email = :email")
+    Optional<User> findByEmailWithGroups(@Param("email") String email);
+
     /**
      * Finds all users with the specified email addresses, including their groups.
-     * Uses LEFT JOIN FETCH to eagerly load user groups.
+     * Uses the {@link User#WITH_GROUPS} entity graph to load user groups in the same query.
      *
      * @param emails List of email addresses to search for
      * @return List of users matching the emails, with groups loaded
      */
-    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.groups WHERE u.email IN :emails")
+    @EntityGraph(User.WITH_GROUPS)
+    @Query("SELECT u FROM User u WHERE u.email IN :emails")
     List<User> findAllByEmailInWithGroups(@Param("emails") List<String> emails);
 
     /**
      * Finds all users with their associated groups.
-     * Uses LEFT JOIN FETCH to eagerly load user groups for all users.
+     * Uses the {@link User#WITH_GROUPS} entity graph to load user groups for all users.
      *
      * @return List of all users with their groups loaded
      */
-    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.groups")
+    @EntityGraph(User.WITH_GROUPS)
+    @Query("SELECT u FROM User u")
     List<User> findAllWithGroups();
 }
\ No newline at end of file
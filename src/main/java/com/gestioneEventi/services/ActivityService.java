@@ -5,6 +5,7 @@ import com.gestioneEventi.exceptions.ResourceNotFoundException;
 import com.gestioneEventi.models.*;
 import com.gestioneEventi.repositories.ActivityRepository;
 import com.gestioneEventi.repositories.EventRepository;
+import com.gestioneEventi.repositories.UserRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -27,6 +28,9 @@ public class ActivityService {
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
     /**
      * Creates a new activity for a team building event.
      * Validates that the event is of type TEAM_BUILDING before creating the activity.
@@ -50,7 +54,7 @@ public class ActivityService {
 
         Activity activity = new Activity();
         activity.setName(request.getName());
-        activity.setCreatedBy(creator);
+        activity.setCreatedBy(userRepository.getReferenceById(creator.getId()));
         activity.setEvent(event);
         activity.setCustom(creator.getRole() == Role.USER);
 
@@ -88,7 +92,7 @@ public class ActivityService {
         Activity activity = activityRepository.findById(activityId)
                 .orElseThrow(() -> new ResourceNotFoundException("Attività", activityId));
 
-        if (!activity.getCreatedBy().equals(currentUser)) {
+        if (!activity.getCreatedBy().getId().equals(currentUser.getId())) {
             throw new IllegalArgumentException("Non puoi modificare attività create da altri utenti.");
         }
 
@@ -110,7 +114,7 @@ public class ActivityService {
         Activity activity = activityRepository.findById(activityId)
                 .orElseThrow(() -> new ResourceNotFoundException("Attività", activityId));
 
-        if (!activity.getCreatedBy().equals(currentUser)) {
+        if (!activity.getCreatedBy().getId().equals(currentUser.getId())) {
             throw new IllegalArgumentException("Non puoi eliminare attività create da altri utenti.");
         }
 
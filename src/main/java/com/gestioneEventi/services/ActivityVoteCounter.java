@@ -0,0 +1,113 @@
+package com.gestioneEventi.services;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.gestioneEventi.repositories.TeamBuildingPartecipationRepository;
+import com.gestioneEventi.repositories.TeamBuildingPartecipationRepository.EventActivityVotes;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory counters of distinct voters per activity for team building events.
+ * Counters are rebuilt from the database on startup and then maintained incrementally
+ * by {@link TeamBuildingPartecipationService}; changes are applied only after the
+ * surrounding transaction commits, so rolled back votes are never counted.
+ * Uses {@link LongAdder} so concurrent votes on the same activity don't contend.
+ *
+ */
+@Service
+public class ActivityVoteCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityVoteCounter.class);
+
+    private final TeamBuildingPartecipationRepository partecipationRepository;
+    private final ConcurrentMap<Long, ConcurrentMap<Long, LongAdder>> counters = new ConcurrentHashMap<>();
+
+    public ActivityVoteCounter(TeamBuildingPartecipationRepository partecipationRepository) {
+        this.partecipationRepository = partecipationRepository;
+    }
+
+    /**
+     * Rebuilds all counters from the database with a single grouped query.
+     */
+    @PostConstruct
+    public void rebuild() {
+        counters.clear();
+        int rows = 0;
+        for (EventActivityVotes votes : partecipationRepository.countVotesByEventAndActivity()) {
+            adder(votes.getEventId(), votes.getActivityId()).add(votes.getVotes());
+            rows++;
+        }
+        log.info("Activity vote counters rebuilt: {} event/activity pairs", rows);
+    }
+
+    /**
+     * Returns the current vote counts of an event.
+     *
+     * @param eventId The ID of the event
+     * @return Map from activity ID to number of distinct voters, null if the event has no counters
+     */
+    public Map<Long, Long> getVotes(Long eventId) {
+        ConcurrentMap<Long, LongAdder> eventCounters = counters.get(eventId);
+        if (eventCounters == null) {
+            return null;
+        }
+        Map<Long, Long> votes = new HashMap<>();
+        eventCounters.forEach((activityId, adder) -> {
+            long count = adder.sum();
+            if (count > 0) {
+                votes.put(activityId, count);
+            }
+        });
+        return votes;
+    }
+
+    /**
+     * Registers a new voter for an activity once the current transaction commits.
+     */
+    public void incrementAfterCommit(Long eventId, Long activityId) {
+        afterCommit(() -> adder(eventId, activityId).increment());
+    }
+
+    /**
+     * Removes a voter from an activity once the current transaction commits.
+     */
+    public void decrementAfterCommit(Long eventId, Long activityId) {
+        afterCommit(() -> adder(eventId, activityId).decrement());
+    }
+
+    /**
+     * Drops all counters of an event once the current transaction commits.
+     */
+    public void evictAfterCommit(Long eventId) {
+        afterCommit(() -> counters.remove(eventId));
+    }
+
+    private LongAdder adder(Long eventId, Long activityId) {
+        return counters.computeIfAbsent(eventId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(activityId, id -> new LongAdder());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,139 @@
+package com.gestioneEventi.services;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Compact binary snapshot of employee directory verdicts, used to warm the cache after a restart.
+ * Emails are never written: each record holds the first 128 bits of the HMAC-SHA256 of the lower-case email,
+ * keyed by an application secret so the hashes cannot be matched against a list of known addresses,
+ * then the verdict and the epoch millis at which the verdict expires.
+ * Layout: magic (int), version (byte), record count (int), then fixed-size records
+ * of hash high (long), hash low (long), verdict (byte), expiresAt (long).
+ *
+ */
+class DirectoryCacheSnapshot {
+
+    private static final int MAGIC = 0x45444353; // "EDCS"
+    private static final byte VERSION = 2;
+    private static final int HEADER_SIZE = Integer.BYTES + 1 + Integer.BYTES;
+    private static final int RECORD_SIZE = Long.BYTES * 2 + 1 + Long.BYTES;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    record EmailHash(long high, long low) {
+    }
+
+    record Entry(boolean allowed, long expiresAt) {
+    }
+
+    private DirectoryCacheSnapshot() {
+    }
+
+    /**
+     * Builds the HMAC key used to hash emails from an application secret.
+     *
+     * @param secret The secret; must not be blank
+     * @return The key for {@link #hash(SecretKey, String)}
+     */
+    static SecretKey key(String secret) {
+        return new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+    }
+
+    static EmailHash hash(SecretKey key, String email) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            ByteBuffer digest = ByteBuffer.wrap(mac.doFinal(email.toLowerCase().getBytes(StandardCharsets.UTF_8)));
+            return new EmailHash(digest.getLong(), digest.getLong());
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HMAC-SHA256 non disponibile", ex);
+        }
+    }
+
+    /**
+     * Writes the entries to a temporary file and atomically replaces the snapshot with it,
+     * so a crash during the write never leaves a truncated snapshot behind.
+     *
+     * @param path The snapshot file
+     * @param entries The verdicts to persist
+     * @throws IOException if the file cannot be written
+     */
+    static void write(Path path, Map<EmailHash, Entry> entries) throws IOException {
+        Path dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(tmp);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeInt(entries.size());
+                for (Map.Entry<EmailHash, Entry> e : entries.entrySet()) {
+                    out.writeLong(e.getKey().high());
+                    out.writeLong(e.getKey().low());
+                    out.writeByte(e.getValue().allowed() ? 1 : 0);
+                    out.writeLong(e.getValue().expiresAt());
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Reads a snapshot through a memory mapping, skipping entries already expired at {@code now}.
+     * A missing file yields an empty map; a file with an unknown format or truncated records is ignored.
+     *
+     * @param path The snapshot file
+     * @param now Current epoch millis
+     * @return The still valid verdicts by email hash
+     * @throws IOException if the file exists but cannot be read
+     */
+    static Map<EmailHash, Entry> read(Path path, long now) throws IOException {
+        Map<EmailHash, Entry> entries = new HashMap<>();
+        if (!Files.isRegularFile(path)) {
+            return entries;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                return entries;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+                return entries;
+            }
+            int count = buffer.getInt();
+            if (count < 0 || (long) count * RECORD_SIZE > size - HEADER_SIZE) {
+                return entries;
+            }
+            for (int i = 0; i < count; i++) {
+                EmailHash hash = new EmailHash(buffer.getLong(), buffer.getLong());
+                boolean allowed = buffer.get() == 1;
+                long expiresAt = buffer.getLong();
+                if (expiresAt > now) {
+                    entries.put(hash, new Entry(allowed, expiresAt));
+                }
+            }
+        }
+        return entries;
+    }
+}
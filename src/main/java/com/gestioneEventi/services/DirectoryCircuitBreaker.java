@@ -0,0 +1,138 @@
+package com.gestioneEventi.services;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker for calls to the employee directory.
+ * Records the outcome of the last {@code windowSize} calls; a call is bad if it failed or took longer
+ * than {@code slowCallThreshold}. When at least {@code minimumCalls} are recorded and the share of bad
+ * calls reaches {@code failureRateThreshold} the breaker opens and rejects calls for {@code openDuration}.
+ * It then lets a single trial call through: success closes it, failure opens it again.
+ *
+ */
+class DirectoryCircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long slowCallThresholdNanos;
+    private final long openDurationNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int next;
+    private int badCalls;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    DirectoryCircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold,
+            Duration slowCallThreshold, Duration openDuration) {
+        this(windowSize, minimumCalls, failureRateThreshold, slowCallThreshold, openDuration, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock Source of {@link System#nanoTime()}-like readings, replaceable in tests
+     */
+    DirectoryCircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold,
+            Duration slowCallThreshold, Duration openDuration, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallThresholdNanos = slowCallThreshold.toNanos();
+        this.openDurationNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Asks permission for a call. While OPEN calls are rejected until the open duration elapses;
+     * in HALF_OPEN only one trial call at a time is permitted.
+     *
+     * @return true if the call may proceed
+     */
+    synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openDurationNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    /**
+     * Gives back a permission whose call ended without an outcome (e.g. cancelled).
+     */
+    synchronized void releasePermission() {
+        trialInFlight = false;
+    }
+
+    synchronized void onSuccess(long durationNanos) {
+        record(durationNanos >= slowCallThresholdNanos);
+    }
+
+    synchronized void onError() {
+        record(true);
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean bad) {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            if (bad) {
+                open();
+            } else {
+                reset(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+        if (recorded == window.length) {
+            if (window[next]) {
+                badCalls--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = bad;
+        if (bad) {
+            badCalls++;
+        }
+        next = (next + 1) % window.length;
+        if (recorded >= minimumCalls && badCalls * 100 >= failureRateThreshold * recorded) {
+            open();
+        }
+    }
+
+    private void open() {
+        reset(State.OPEN);
+        openedAt = nanoClock.getAsLong();
+    }
+
+    private void reset(State newState) {
+        state = newState;
+        recorded = 0;
+        next = 0;
+        badCalls = 0;
+        Arrays.fill(window, false);
+    }
+}
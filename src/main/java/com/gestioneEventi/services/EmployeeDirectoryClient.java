@@ -1,19 +1,61 @@
 package com.gestioneEventi.services;
 
-import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import javax.crypto.SecretKey;
 
 /**
  * Client service for communicating with the Employee Directory microservice.
  * Provides employee validation functionality with caching and fallback support.
- * Uses WebClient for reactive HTTP communication and Caffeine for caching.
+ * Uses WebClient for reactive HTTP communication and a Caffeine {@link AsyncLoadingCache} for caching:
+ * concurrent misses for the same email share a single in-flight directory request.
+ * Positive verdicts are refreshed in the background once older than the configured TTL and keep being
+ * served while the directory is down, up to the stale TTL; negative verdicts expire after a shorter TTL.
+ * Directory calls go through a circuit breaker and a concurrency bulkhead: when the directory is failing
+ * or saturated, calls fail fast into the fallback policy instead of holding threads until the timeout.
+ * The cache is periodically snapshotted to a local file and reloaded on startup, so a restarted node
+ * answers from the previous verdicts instead of hitting the directory for every first login.
  *
  */
 @Service
@@ -21,9 +63,45 @@ public class EmployeeDirectoryClient {
 
     private static final Logger log = LoggerFactory.getLogger(EmployeeDirectoryClient.class);
 
+    private static final Duration LOOKUP_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * Maximum number of emails sent in a single batch request.
+     */
+    private static final int BATCH_CHUNK_SIZE = 100;
+
+    /**
+     * Maximum number of concurrent single lookups when the directory has no batch endpoint.
+     */
+    private static final int SINGLE_LOOKUP_CONCURRENCY = 8;
+
     private final WebClient webClient;
-    private final Cache<String, Boolean> emailCache;
+    private final AsyncLoadingCache<String, Boolean> emailCache;
     private final boolean fallbackAllow;
+    private final Duration staleTtl;
+    private final Duration negativeTtl;
+    private final DirectoryCircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadRejections;
+    private final Path snapshotPath;
+    private final SecretKey snapshotKey;
+
+    /**
+     * Verdicts reloaded from the snapshot, consumed by the loader on the first miss for each email.
+     */
+    private final Map<DirectoryCacheSnapshot.EmailHash, DirectoryCacheSnapshot.Entry> warmEntries = new ConcurrentHashMap<>();
+
+    /**
+     * Expiry (epoch millis) of the warm verdicts handed to the cache, so they keep their remaining
+     * lifetime instead of starting a fresh one. An email's deadline is dropped by its next load or refresh.
+     */
+    private final Map<String, Long> warmDeadlines = new ConcurrentHashMap<>();
+
+    /**
+     * Cleared the first time the directory rejects a batch request as unsupported.
+     */
+    private volatile boolean batchSupported = true;
 
     /**
      * Constructor for EmployeeDirectoryClient.
@@ -31,49 +109,430 @@ public class EmployeeDirectoryClient {
      *
      * @param baseUrl The base URL of the employee directory service
      * @param fallbackAllow Whether to allow access when the service is unreachable
+     * @param ttlMinutes Age after which a cached verdict is refreshed in the background on the next read
+     * @param negativeTtlMinutes Lifetime of a negative verdict
+     * @param staleTtlMinutes Maximum age of a positive verdict served while refreshes keep failing
+     * @param maxSize Maximum number of cached verdicts
+     * @param maxConcurrentCalls Maximum number of in-flight directory calls (bulkhead)
+     * @param failureRateThreshold Percentage of failed or slow calls that opens the circuit
+     * @param slowCallMillis Duration above which a successful call counts as slow
+     * @param windowSize Number of recent calls the failure rate is computed on
+     * @param minimumCalls Minimum number of recorded calls before the circuit can open
+     * @param openSeconds How long the circuit stays open before a trial call
+     * @param snapshotPath File the cache is snapshotted to; blank disables snapshots
+     * @param snapshotKey Secret the emails are hashed with in the snapshot; blank disables snapshots
+     * @param meterRegistry Registry for breaker state and rejection metrics
      */
     public EmployeeDirectoryClient(
             @Value("${app.employee-directory.url}") String baseUrl,
-            @Value("${app.employee-directory.fallback-allow-if-unreachable}") boolean fallbackAllow) {
+            @Value("${app.employee-directory.fallback-allow-if-unreachable}") boolean fallbackAllow,
+            @Value("${app.employee-directory.cache-ttl-minutes:10}") long ttlMinutes,
+            @Value("${app.employee-directory.negative-cache-ttl-minutes:1}") long negativeTtlMinutes,
+            @Value("${app.employee-directory.stale-ttl-minutes:1440}") long staleTtlMinutes,
+            @Value("${app.employee-directory.cache-max-size:10000}") long maxSize,
+            @Value("${app.employee-directory.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls,
+            @Value("${app.employee-directory.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+            @Value("${app.employee-directory.circuit-breaker.slow-call-millis:2000}") long slowCallMillis,
+            @Value("${app.employee-directory.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${app.employee-directory.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${app.employee-directory.circuit-breaker.open-seconds:30}") long openSeconds,
+            @Value("${app.employee-directory.snapshot.path:}") String snapshotPath,
+            @Value("${app.employee-directory.snapshot.key:${app.jwt.secret:}}") String snapshotKey,
+            MeterRegistry meterRegistry) {
         this.webClient = WebClient.builder().baseUrl(baseUrl).build();
-        this.emailCache = Caffeine.newBuilder()
-                .expireAfterWrite(Duration.ofMinutes(10))
-                .maximumSize(10_000)
-                .build();
         this.fallbackAllow = fallbackAllow;
+        this.negativeTtl = Duration.ofMinutes(negativeTtlMinutes);
+        this.staleTtl = Duration.ofMinutes(Math.max(staleTtlMinutes, ttlMinutes));
+        this.emailCache = Caffeine.newBuilder()
+                .refreshAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .expireAfter(new VerdictExpiry())
+                .maximumSize(maxSize)
+                .buildAsync(new DirectoryLoader());
+
+        this.circuitBreaker = new DirectoryCircuitBreaker(windowSize, minimumCalls, failureRateThreshold,
+                Duration.ofMillis(slowCallMillis), Duration.ofSeconds(openSeconds));
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        Gauge.builder("employee.directory.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Stato del circuit breaker: 0 = CLOSED, 1 = OPEN, 2 = HALF_OPEN")
+                .register(meterRegistry);
+        Gauge.builder("employee.directory.calls.in.flight", bulkhead,
+                        semaphore -> maxConcurrentCalls - semaphore.availablePermits())
+                .register(meterRegistry);
+        this.circuitOpenRejections = Counter.builder("employee.directory.rejections")
+                .tag("reason", "circuit_open")
+                .register(meterRegistry);
+        this.bulkheadRejections = Counter.builder("employee.directory.rejections")
+                .tag("reason", "bulkhead_full")
+                .register(meterRegistry);
+        if (!snapshotPath.isBlank() && snapshotKey.isBlank()) {
+            log.warn("Employee directory cache snapshot disabled: no hashing key configured");
+        }
+        boolean snapshotEnabled = !snapshotPath.isBlank() && !snapshotKey.isBlank();
+        this.snapshotPath = snapshotEnabled ? Path.of(snapshotPath) : null;
+        this.snapshotKey = snapshotEnabled ? DirectoryCacheSnapshot.key(snapshotKey) : null;
+    }
+
+    /**
+     * Reloads the verdicts of the last snapshot, skipping the expired ones.
+     */
+    @PostConstruct
+    public void loadSnapshot() {
+        if (snapshotPath == null) {
+            return;
+        }
+        try {
+            warmEntries.putAll(DirectoryCacheSnapshot.read(snapshotPath, System.currentTimeMillis()));
+            log.info("Employee directory cache warmed from {} ({} verdicts)", snapshotPath, warmEntries.size());
+        } catch (IOException ex) {
+            log.warn("Employee directory cache snapshot not readable: {}", snapshotPath, ex);
+        }
+    }
+
+    /**
+     * Writes the cached verdicts, with their expiry, to the snapshot file.
+     * Verdicts reloaded at startup and not yet used are carried over until they expire.
+     */
+    @Scheduled(initialDelayString = "${app.employee-directory.snapshot.interval-ms:300000}",
+            fixedDelayString = "${app.employee-directory.snapshot.interval-ms:300000}")
+    @PreDestroy
+    public void saveSnapshot() {
+        if (snapshotPath == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Map<DirectoryCacheSnapshot.EmailHash, DirectoryCacheSnapshot.Entry> entries = new HashMap<>();
+        warmEntries.forEach((hash, entry) -> {
+            if (entry.expiresAt() > now) {
+                entries.put(hash, entry);
+            }
+        });
+        Policy.VarExpiration<String, Boolean> expiration = emailCache.synchronous().policy().expireVariably().orElseThrow();
+        emailCache.synchronous().asMap().forEach((email, allowed) -> expiration.getExpiresAfter(email)
+                .ifPresent(remaining -> entries.put(DirectoryCacheSnapshot.hash(snapshotKey, email),
+                        new DirectoryCacheSnapshot.Entry(allowed, now + remaining.toMillis()))));
+        try {
+            DirectoryCacheSnapshot.write(snapshotPath, entries);
+            log.debug("Employee directory cache snapshot written to {} ({} verdicts)", snapshotPath, entries.size());
+        } catch (IOException ex) {
+            log.warn("Employee directory cache snapshot not writable: {}", snapshotPath, ex);
+        }
     }
 
     /**
      * Checks if an email belongs to a valid employee.
-     * Uses caching to improve performance and reduce external API calls.
-     * Falls back to configured behavior if the employee directory service is unreachable.
+     * Blocking variant of {@link #isEmployeeAsync(String)} for callers that cannot compose futures.
      *
      * @param email The email address to validate
      * @return true if the email belongs to a valid employee, false otherwise
      */
     public boolean isEmployee(String email) {
-        Boolean cached = emailCache.getIfPresent(email.toLowerCase());
-        if (cached != null) {
-            return cached;
+        return isEmployeeAsync(email).join();
+    }
+
+    /**
+     * Checks asynchronously if an email belongs to a valid employee, without blocking the caller.
+     * Concurrent calls for the same email while a lookup is in flight share that lookup.
+     * Falls back to configured behavior if the employee directory service is unreachable;
+     * fallback verdicts are never cached.
+     *
+     * @param email The email address to validate
+     * @return A future completing with true if the email belongs to a valid employee; never completes exceptionally
+     */
+    public CompletableFuture<Boolean> isEmployeeAsync(String email) {
+        return emailCache.get(email.toLowerCase())
+                .handle((allowed, ex) -> {
+                    if (ex == null) {
+                        return allowed;
+                    }
+                    logUnavailable("email=" + email, ex);
+                    // se fallbackAllow=true permetti l'accesso temporaneamente, altrimenti deny
+                    return fallbackAllow;
+                });
+    }
+
+    /**
+     * Checks many emails at once. Cached verdicts are reused; the missing ones are fetched with
+     * chunked batch requests ({@code POST /employees}), or with parallel single lookups of bounded
+     * concurrency if the directory does not support batches. Every fetched verdict is cached.
+     * Blocking variant of {@link #areEmployeesAsync(Collection)}.
+     *
+     * @param emails The email addresses to validate
+     * @return Verdict per email, keyed by lower-case email
+     */
+    public Map<String, Verdict> areEmployees(Collection<String> emails) {
+        return areEmployeesAsync(emails).join();
+    }
+
+    /**
+     * Asynchronous variant of {@link #areEmployees(Collection)}.
+     * If the directory is unreachable every email not already cached gets the fallback verdict, which is not cached:
+     * {@link Verdict#EMPLOYEE} when fallbackAllow is set, {@link Verdict#UNAVAILABLE} otherwise, so callers can
+     * tell an outage from a real negative answer.
+     *
+     * @param emails The email addresses to validate
+     * @return A future completing with the verdict per email, keyed by lower-case email; never completes exceptionally
+     */
+    public CompletableFuture<Map<String, Verdict>> areEmployeesAsync(Collection<String> emails) {
+        Set<String> keys = emails.stream()
+                .filter(Objects::nonNull)
+                .map(String::toLowerCase)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        return emailCache.getAll(keys)
+                .handle((verdicts, ex) -> {
+                    Map<String, Verdict> result = new LinkedHashMap<>();
+                    if (ex == null) {
+                        keys.forEach(key -> result.put(key, Verdict.of(verdicts.get(key))));
+                        return result;
+                    }
+                    logUnavailable("emails=" + keys.size(), ex);
+                    keys.forEach(key -> {
+                        // solo verdetti già completati: un caricamento ancora in corso non va atteso qui
+                        CompletableFuture<Boolean> cached = emailCache.getIfPresent(key);
+                        boolean usable = cached != null && cached.isDone() && !cached.isCompletedExceptionally();
+                        if (usable) {
+                            result.put(key, Verdict.of(cached.join()));
+                        } else {
+                            result.put(key, fallbackAllow ? Verdict.EMPLOYEE : Verdict.UNAVAILABLE);
+                        }
+                    });
+                    return result;
+                });
+    }
+
+    private Mono<Map<String, Boolean>> fetchAll(Set<? extends String> emails) {
+        List<String> pending = List.copyOf(emails);
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i += BATCH_CHUNK_SIZE) {
+            chunks.add(pending.subList(i, Math.min(i + BATCH_CHUNK_SIZE, pending.size())));
         }
+        return Flux.fromIterable(chunks)
+                .concatMap(this::fetchChunk)
+                .collect(HashMap<String, Boolean>::new, Map::putAll)
+                .map(found -> {
+                    // le email assenti dalla risposta non sono dipendenti
+                    Map<String, Boolean> verdicts = new HashMap<>();
+                    pending.forEach(email -> verdicts.put(email, Boolean.TRUE.equals(found.get(email))));
+                    return verdicts;
+                });
+    }
 
-        try {
-            // supponiamo endpoint GET /employees?email={email} ritorni 200 con body
-            // {exists:true}
-            Boolean exists = webClient.get()
-                    .uri(uriBuilder -> uriBuilder.path("/employees").queryParam("email", email).build())
-                    .retrieve()
-                    .bodyToMono(EmployeeExistResponse.class)
-                    .map(EmployeeExistResponse::isExists)
-                    .block(Duration.ofSeconds(5));
+    private Mono<Map<String, Boolean>> fetchChunk(List<String> chunk) {
+        if (!batchSupported) {
+            return fetchEach(chunk);
+        }
+        // supponiamo endpoint POST /employees con body {emails:[...]} che ritorni
+        // {results:[{email, exists}]}
+        return guarded(webClient.post()
+                .uri("/employees")
+                .bodyValue(Map.of("emails", chunk))
+                .retrieve()
+                .bodyToMono(EmployeeBatchResponse.class)
+                .map(EmployeeBatchResponse::toMap)
+                .timeout(LOOKUP_TIMEOUT))
+                .onErrorResume(EmployeeDirectoryClient::isBatchUnsupported, ex -> {
+                    log.info("Employee directory has no batch endpoint, falling back to single lookups");
+                    batchSupported = false;
+                    return fetchEach(chunk);
+                });
+    }
+
+    private Mono<Map<String, Boolean>> fetchEach(List<String> chunk) {
+        return Flux.fromIterable(chunk)
+                .flatMap(email -> fetch(email).map(exists -> Map.entry(email, exists)), SINGLE_LOOKUP_CONCURRENCY)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
 
-            boolean allowed = Boolean.TRUE.equals(exists);
-            emailCache.put(email.toLowerCase(), allowed);
-            return allowed;
-        } catch (Exception ex) {
-            log.warn("Employee directory unreachable, email={} fallbackAllow={}", email, fallbackAllow, ex);
-            // se fallbackAllow=true permetti l'accesso temporaneamente, altrimenti deny
-            return fallbackAllow;
+    private static boolean isBatchUnsupported(Throwable ex) {
+        if (!(ex instanceof WebClientResponseException responseException)) {
+            return false;
+        }
+        HttpStatus status = HttpStatus.resolve(responseException.getStatusCode().value());
+        return status == HttpStatus.NOT_FOUND
+                || status == HttpStatus.METHOD_NOT_ALLOWED
+                || status == HttpStatus.NOT_IMPLEMENTED;
+    }
+
+    private Mono<Boolean> fetch(String email) {
+        // supponiamo endpoint GET /employees?email={email} ritorni 200 con body
+        // {exists:true}
+        return guarded(webClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/employees").queryParam("email", email).build())
+                .retrieve()
+                .bodyToMono(EmployeeExistResponse.class)
+                .map(EmployeeExistResponse::isExists)
+                .defaultIfEmpty(false)
+                .timeout(LOOKUP_TIMEOUT));
+    }
+
+    /**
+     * Runs a directory call through the circuit breaker and the bulkhead.
+     * Rejected calls fail immediately with {@link DirectoryRejectedException}; 4xx responses mean the
+     * directory is up and are not counted as failures by the breaker.
+     */
+    private <T> Mono<T> guarded(Mono<T> call) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                circuitOpenRejections.increment();
+                return Mono.error(new DirectoryRejectedException("circuit breaker open"));
+            }
+            if (!bulkhead.tryAcquire()) {
+                circuitBreaker.releasePermission();
+                bulkheadRejections.increment();
+                return Mono.error(new DirectoryRejectedException("too many concurrent directory calls"));
+            }
+            long start = System.nanoTime();
+            // i permessi vanno restituiti prima che l'esito arrivi al chiamante, che può subito fare un'altra chiamata
+            AtomicBoolean released = new AtomicBoolean();
+            return call
+                    .doOnSuccess(value -> circuitBreaker.onSuccess(System.nanoTime() - start))
+                    .doOnError(ex -> {
+                        if (isClientError(ex)) {
+                            circuitBreaker.onSuccess(System.nanoTime() - start);
+                        } else {
+                            circuitBreaker.onError();
+                        }
+                    })
+                    .doOnTerminate(() -> {
+                        if (released.compareAndSet(false, true)) {
+                            bulkhead.release();
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (released.compareAndSet(false, true)) {
+                            circuitBreaker.releasePermission();
+                            bulkhead.release();
+                        }
+                    });
+        });
+    }
+
+    private static boolean isClientError(Throwable ex) {
+        return ex instanceof WebClientResponseException responseException
+                && responseException.getStatusCode().is4xxClientError();
+    }
+
+    private void logUnavailable(String subject, Throwable ex) {
+        Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof DirectoryRejectedException) {
+            log.debug("Employee directory call rejected ({}), {} fallbackAllow={}", cause.getMessage(), subject, fallbackAllow);
+        } else {
+            log.warn("Employee directory unreachable, {} fallbackAllow={}", subject, fallbackAllow, ex);
+        }
+    }
+
+    /**
+     * Loads verdicts from the directory. A failed reload leaves the previous verdict in the cache,
+     * so stale answers keep being served while the directory is unreachable.
+     */
+    private class DirectoryLoader implements AsyncCacheLoader<String, Boolean> {
+
+        @Override
+        public CompletableFuture<Boolean> asyncLoad(String email, Executor executor) {
+            Boolean warm = takeWarm(email);
+            return warm != null ? CompletableFuture.completedFuture(warm) : fetch(email).toFuture();
+        }
+
+        @Override
+        public CompletableFuture<Map<String, Boolean>> asyncLoadAll(Set<? extends String> emails, Executor executor) {
+            Map<String, Boolean> warm = new HashMap<>();
+            Set<String> missing = new LinkedHashSet<>();
+            for (String email : emails) {
+                Boolean verdict = takeWarm(email);
+                if (verdict != null) {
+                    warm.put(email, verdict);
+                } else {
+                    missing.add(email);
+                }
+            }
+            if (missing.isEmpty()) {
+                return CompletableFuture.completedFuture(warm);
+            }
+            return fetchAll(missing).map(fetched -> {
+                fetched.putAll(warm);
+                return fetched;
+            }).toFuture();
+        }
+
+        private Boolean takeWarm(String email) {
+            warmDeadlines.remove(email);
+            if (warmEntries.isEmpty()) {
+                return null;
+            }
+            DirectoryCacheSnapshot.Entry entry = warmEntries.remove(DirectoryCacheSnapshot.hash(snapshotKey, email));
+            if (entry == null || entry.expiresAt() <= System.currentTimeMillis()) {
+                return null;
+            }
+            warmDeadlines.put(email, entry.expiresAt());
+            return entry.allowed();
+        }
+
+        @Override
+        public CompletableFuture<Boolean> asyncReload(String email, Boolean oldValue, Executor executor) {
+            // il verdetto ricaricato dalla directory ha di nuovo la durata piena
+            warmDeadlines.remove(email);
+            return fetch(email)
+                    .doOnError(ex -> log.warn("Employee directory refresh failed, serving cached verdict, email={}", email))
+                    .toFuture();
+        }
+    }
+
+    /**
+     * Positive verdicts live up to the stale TTL (being refreshed meanwhile), negative ones only for the negative TTL.
+     * Verdicts warmed from the snapshot only live for what was left of their lifetime when it was written.
+     * The async cache applies the lifetime of a loaded value through {@code expireAfterUpdate} when the load
+     * completes, so both callbacks honour the warm deadline.
+     */
+    private class VerdictExpiry implements Expiry<String, Boolean> {
+
+        @Override
+        public long expireAfterCreate(String email, Boolean allowed, long currentTime) {
+            return lifetime(email, allowed);
+        }
+
+        @Override
+        public long expireAfterUpdate(String email, Boolean allowed, long currentTime, long currentDuration) {
+            return lifetime(email, allowed);
+        }
+
+        @Override
+        public long expireAfterRead(String email, Boolean allowed, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private long lifetime(String email, Boolean allowed) {
+            long ttl = (Boolean.TRUE.equals(allowed) ? staleTtl : negativeTtl).toNanos();
+            Long deadline = warmDeadlines.get(email);
+            if (deadline == null) {
+                return ttl;
+            }
+            long remaining = Duration.ofMillis(Math.max(0, deadline - System.currentTimeMillis())).toNanos();
+            return Math.min(remaining, ttl);
+        }
+    }
+
+    /**
+     * Outcome of a batch employee check.
+     */
+    public enum Verdict {
+        /** The directory knows the email as an employee, or the fallback policy allows it. */
+        EMPLOYEE,
+        /** The directory answered that the email is not an employee. */
+        NOT_EMPLOYEE,
+        /** The directory could not be reached and the fallback policy does not allow unknown emails. */
+        UNAVAILABLE;
+
+        static Verdict of(Boolean employee) {
+            return Boolean.TRUE.equals(employee) ? EMPLOYEE : NOT_EMPLOYEE;
+        }
+    }
+
+    /**
+     * Raised when the circuit breaker or the bulkhead refuses a directory call.
+     */
+    private static class DirectoryRejectedException extends RuntimeException {
+
+        DirectoryRejectedException(String message) {
+            super(message);
         }
     }
 
@@ -84,4 +543,35 @@ public class EmployeeDirectoryClient {
             return exists;
         }
     }
+
+    private static class EmployeeBatchResponse {
+        private List<EmployeeBatchResult> results;
+
+        public List<EmployeeBatchResult> getResults() {
+            return results;
+        }
+
+        Map<String, Boolean> toMap() {
+            Map<String, Boolean> verdicts = new HashMap<>();
+            if (results != null) {
+                results.stream()
+                        .filter(result -> result.getEmail() != null)
+                        .forEach(result -> verdicts.put(result.getEmail().toLowerCase(), result.isExists()));
+            }
+            return verdicts;
+        }
+    }
+
+    private static class EmployeeBatchResult {
+        private String email;
+        private boolean exists;
+
+        public String getEmail() {
+            return email;
+        }
+
+        public boolean isExists() {
+            return exists;
+        }
+    }
 }
@@ -1,17 +1,26 @@
 package com.gestioneEventi.services;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.gestioneEventi.dto.event.CreateEventRequest;
+import com.gestioneEventi.dto.event.EventSummaryDTO;
 import com.gestioneEventi.dto.event.UpdateEventRequest;
 import com.gestioneEventi.exceptions.ResourceNotFoundException;
 import com.gestioneEventi.models.Event;
@@ -20,6 +29,7 @@ import com.gestioneEventi.models.User;
 import com.gestioneEventi.repositories.ActivityRepository;
 import com.gestioneEventi.repositories.EventRepository;
 import com.gestioneEventi.repositories.FerieRepository;
+import com.gestioneEventi.repositories.PartecipationCounterRepository;
 import com.gestioneEventi.repositories.PartecipationRepository;
 import com.gestioneEventi.repositories.TeamBuildingPartecipationRepository;
 import com.gestioneEventi.repositories.UserRepository;
@@ -33,6 +43,11 @@ import com.gestioneEventi.repositories.UserRepository;
 @Service
 public class EventService {
 
+    /**
+     * Maximum number of IDs bound in a single IN clause when resolving invited users.
+     */
+    private static final int USER_LOOKUP_CHUNK_SIZE = 1000;
+
     @Autowired
     private EventRepository eventRepository;
 
@@ -45,6 +60,9 @@ public class EventService {
     @Autowired
     private PartecipationRepository partecipationRepository;
 
+    @Autowired
+    private PartecipationCounterRepository partecipationCounterRepository;
+
     @Autowired
     private PartecipationService partecipationService;
 
@@ -54,6 +72,9 @@ public class EventService {
     @Autowired
     private ActivityRepository activityRepository;
 
+    @Autowired
+    private ActivityVoteCounter activityVoteCounter;
+
     /**
      * Retrieves all events from the database.
      *
@@ -64,6 +85,88 @@ public class EventService {
         return eventRepository.findAll();
     }
 
+    /**
+     * Retrieves a lightweight summary of all events, without invited users.
+     *
+     * @return List of event summaries with invitee counts
+     */
+    @Transactional(readOnly = true)
+    public List<EventSummaryDTO> getAllEventSummaries() {
+        return eventRepository.findAllSummaries();
+    }
+
+    /**
+     * Retrieves a lightweight summary of the events where a specific user is invited.
+     *
+     * @param id The ID of the invited user
+     * @return List of event summaries with invitee counts
+     */
+    @Transactional(readOnly = true)
+    public List<EventSummaryDTO> getUserEventSummaries(Long id) {
+        return eventRepository.findSummariesByUserId(id);
+    }
+
+    /**
+     * Retrieves one page of events overlapping a date window, using keyset pagination on (startDate, id).
+     * An overlapping event either was already running on {@code from} or starts inside the window.
+     * The two sets are read with separate index range scans: events ongoing at {@code from} through
+     * the (end_date, start_date) index, events starting in the window through the (start_date, id) index.
+     * Every ongoing event starts before {@code from}, so the first set precedes the second in
+     * (startDate, id) order and a page is filled from the first set, then from the second.
+     * Neither range touches events that ended before the window, so the cost does not grow with the
+     * event history. Only the events of the page are then loaded with their invited users.
+     *
+     * @param from First day of the window (inclusive)
+     * @param to Last day of the window (inclusive)
+     * @param eventType Optional event type filter, null for all types
+     * @param afterStartDate Start date of the last event of the previous page, null for the first page
+     * @param afterId ID of the last event of the previous page, null for the first page
+     * @param size Maximum number of events in the page
+     * @return Slice of events ordered by start date and ID
+     * @throws IllegalArgumentException if the window or the cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public Slice<Event> getEventsInWindow(LocalDate from, LocalDate to, EventType eventType,
+            LocalDate afterStartDate, Long afterId, int size) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Le date from e to sono obbligatorie");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("La data from deve essere precedente o uguale alla data to");
+        }
+        if ((afterStartDate == null) != (afterId == null)) {
+            throw new IllegalArgumentException("afterStartDate e afterId devono essere indicati insieme");
+        }
+
+        // una riga in più per sapere se esiste una pagina successiva
+        List<Long> ids = new ArrayList<>();
+        boolean cursorBeforeWindow = afterStartDate == null || afterStartDate.isBefore(from);
+        if (cursorBeforeWindow) {
+            ids.addAll(eventRepository.findIdsOngoingAt(from, eventType, afterStartDate, afterId,
+                    PageRequest.of(0, size + 1)));
+        }
+        if (ids.size() <= size) {
+            ids.addAll(eventRepository.findIdsStartingInWindow(from, to, eventType,
+                    cursorBeforeWindow ? null : afterStartDate,
+                    cursorBeforeWindow ? null : afterId,
+                    PageRequest.of(0, size + 1 - ids.size())));
+        }
+
+        boolean hasNext = ids.size() > size;
+        List<Long> pageIds = hasNext ? ids.subList(0, size) : ids;
+        if (pageIds.isEmpty()) {
+            return new SliceImpl<>(List.of(), PageRequest.of(0, size), false);
+        }
+
+        Map<Long, Event> loaded = eventRepository.findAllByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(Event::getId, Function.identity()));
+        List<Event> events = pageIds.stream()
+                .map(loaded::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new SliceImpl<>(events, PageRequest.of(0, size), hasNext);
+    }
+
     /**
      * Retrieves all events created by a specific user.
      *
@@ -104,7 +207,7 @@ public class EventService {
         event.setTitle(request.getTitle());
         event.setStartDate(request.getStartDate());
         event.setEndDate(request.getEndDate());
-        event.setCreatedBy(creator);
+        event.setCreatedBy(userRepository.getReferenceById(creator.getId()));
 
         if (request.getEventType() == null) {
             event.setEventType(EventType.FERIE);
@@ -115,11 +218,7 @@ public class EventService {
         validateEventDates(event);
 
         if (request.getInvitedUserIds() != null && !request.getInvitedUserIds().isEmpty()) {
-            Set<User> users = request.getInvitedUserIds().stream()
-                    .map(id -> userRepository.findById(id)
-                            .orElseThrow(() -> new ResourceNotFoundException("Utente", id)))
-                    .collect(Collectors.toSet());
-            event.setInvitedUsers(users);
+            event.setInvitedUsers(resolveInvitedUsers(request.getInvitedUserIds()));
         }
 
         Event savedEvent = eventRepository.save(event);
@@ -163,10 +262,7 @@ public class EventService {
             Set<User> oldInvited = new HashSet<>(event.getInvitedUsers());
 
             if (request.getInvitedUserIds() != null) {
-                Set<User> newInvited = request.getInvitedUserIds().stream()
-                        .map(userId -> userRepository.findById(userId)
-                                .orElseThrow(() -> new ResourceNotFoundException("Utente", userId)))
-                        .collect(Collectors.toSet());
+                Set<User> newInvited = resolveInvitedUsers(request.getInvitedUserIds());
                 event.setInvitedUsers(newInvited);
 
                 Set<User> newlyAdded = new HashSet<>(newInvited);
@@ -185,7 +281,9 @@ public class EventService {
 
     /**
      * Deletes an event and all its associated data based on event type.
-     * Performs cascading deletion of related entities (participations, activities, etc.).
+     * Performs cascading deletion of related entities (participations, activities, etc.)
+     * with set-based bulk deletes keyed by event ID, so the number of statements
+     * does not depend on how many invitees or child rows the event has.
      *
      * @param id The ID of the event to delete
      * @throws ResourceNotFoundException if the event is not found
@@ -193,26 +291,52 @@ public class EventService {
      */
     @Transactional
     public void deleteEvent(Long id) {
-        Event event = eventRepository.findById(id)
+        final EventType eventType = eventRepository.findEventTypeById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Evento", id));
 
-        final EventType eventType = event.getEventType();
         switch (eventType) {
             case GENERICO:
-                partecipationRepository.deleteAllByEvent(event);
+                partecipationRepository.deleteAllByEventId(id);
+                partecipationCounterRepository.deleteAllByEventId(id);
                 break;
             case FERIE:
-                ferieRepository.deleteAllByEvent(event);
+                ferieRepository.deleteAllByEventId(id);
                 break;
             case TEAM_BUILDING:
-                teamBuildingPartecipationRepository.deleteAllByEvent(event);
-                activityRepository.deleteAll(activityRepository.findByEvent(event));
+                teamBuildingPartecipationRepository.deleteAllByEventId(id);
+                activityRepository.deleteAllByEventId(id);
+                activityVoteCounter.evictAfterCommit(id);
                 break;
             default:
                 throw new IllegalArgumentException("Tipo di evento non valido: " + eventType);
         }
 
-        eventRepository.delete(event);
+        eventRepository.deleteInvitedUsersByEventId(id);
+        eventRepository.deleteEventById(id);
+    }
+
+    /**
+     * Loads the invited users with batched IN queries instead of one lookup per ID.
+     * IDs are split into chunks to stay within the database IN-list limits.
+     *
+     * @param userIds The IDs of the users to invite
+     * @return The set of invited users
+     * @throws ResourceNotFoundException listing every ID that does not match a user
+     */
+    private Set<User> resolveInvitedUsers(Collection<Long> userIds) {
+        List<Long> uniqueIds = userIds.stream().distinct().toList();
+        Set<User> users = new HashSet<>();
+        for (int i = 0; i < uniqueIds.size(); i += USER_LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = uniqueIds.subList(i, Math.min(i + USER_LOOKUP_CHUNK_SIZE, uniqueIds.size()));
+            users.addAll(userRepository.findAllById(chunk));
+        }
+
+        if (users.size() != uniqueIds.size()) {
+            Set<Long> foundIds = users.stream().map(User::getId).collect(Collectors.toSet());
+            List<Long> missing = uniqueIds.stream().filter(id -> !foundIds.contains(id)).toList();
+            throw new ResourceNotFoundException("Utenti non trovati: " + missing);
+        }
+        return users;
     }
 
     /**
@@ -1,13 +1,29 @@
 package com.gestioneEventi.services;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.gestioneEventi.dto.BulkUpdateResultDTO;
+import com.gestioneEventi.dto.ferie.AbsenceDTO;
+import com.gestioneEventi.dto.ferie.BulkFerieStatusRequest;
 import com.gestioneEventi.dto.ferie.CreateFerieRequest;
+import com.gestioneEventi.dto.ferie.FerieExportRow;
+import com.gestioneEventi.dto.ferie.GroupAvailabilityDTO;
+import com.gestioneEventi.dto.ferie.GroupCoverageDTO;
 import com.gestioneEventi.dto.ferie.UpdateFerieRequest;
 import com.gestioneEventi.exceptions.BusinessValidationException;
 import com.gestioneEventi.exceptions.InsufficientPermissionException;
@@ -19,6 +35,10 @@ import com.gestioneEventi.models.Status;
 import com.gestioneEventi.models.User;
 import com.gestioneEventi.repositories.EventRepository;
 import com.gestioneEventi.repositories.FerieRepository;
+import com.gestioneEventi.repositories.UserGroupRepository;
+import com.gestioneEventi.repositories.UserRepository;
+import com.gestioneEventi.utils.ExportFormat;
+import com.gestioneEventi.utils.StreamingExporter;
 
 /**
  * Service class for managing vacation/leave requests (Ferie).
@@ -29,22 +49,42 @@ import com.gestioneEventi.repositories.FerieRepository;
 @Service
 public class FerieService {
 
+    /**
+     * Maximum number of days covered by a single availability heatmap.
+     */
+    private static final int MAX_HEATMAP_DAYS = 366;
+
+    /**
+     * Maximum number of IDs bound in a single IN clause.
+     */
+    private static final int ID_CHUNK_SIZE = 1000;
+
     @Autowired
     private FerieRepository ferieRepository;
 
+    @Autowired
+    private StreamingExporter streamingExporter;
+
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserGroupRepository userGroupRepository;
+
     /**
      * Creates a new vacation request for a FERIE-type event.
      * Validates user permissions, event type, and date constraints before creating the request.
+     * Permission check and event lookup are a single indexed query returning only the event type
+     * and dates, so the cost does not depend on how many users are invited to the event.
      *
      * @param request The vacation creation request containing event ID, dates, and title
      * @param user The user requesting the vacation
      * @return The created and saved vacation request
      * @throws BusinessValidationException if event is not specified or not of type FERIE
-     * @throws InsufficientPermissionException if user is not invited to the event or event has started
-     * @throws ResourceNotFoundException if the event is not found
+     * @throws InsufficientPermissionException if the event doesn't exist, user is not invited to it or event has started
      * @throws IllegalArgumentException if date validation fails
      */
     @Transactional
@@ -53,17 +93,11 @@ public class FerieService {
             throw new BusinessValidationException("Evento non specificato");
         }
 
-        boolean canRequest = ferieRepository.canUserRequestFerieForEvent(
+        FerieRepository.RequestableEvent event = ferieRepository.findRequestableEvent(
                 request.getEventId(),
-                user.getId());
-
-        if (!canRequest) {
-            throw new InsufficientPermissionException(
-                    "Non puoi richiedere ferie per questo evento (non invitato o evento già iniziato)");
-        }
-
-        Event event = eventRepository.findById(request.getEventId())
-                .orElseThrow(() -> new ResourceNotFoundException("Evento", request.getEventId()));
+                user.getId())
+                .orElseThrow(() -> new InsufficientPermissionException(
+                        "Non puoi richiedere ferie per questo evento (non invitato o evento già iniziato)"));
 
         if (event.getEventType() != EventType.FERIE) {
             throw new BusinessValidationException("Le ferie possono essere richieste solo per eventi di tipo FERIE");
@@ -73,11 +107,11 @@ public class FerieService {
         ferie.setTitle(request.getTitle());
         ferie.setStartDate(request.getStartDate());
         ferie.setEndDate(request.getEndDate());
-        ferie.setEvent(event);
-        ferie.setCreatedBy(user);
+        ferie.setEvent(eventRepository.getReferenceById(request.getEventId()));
+        ferie.setCreatedBy(userRepository.getReferenceById(user.getId()));
         ferie.setStatus(Status.APPROVED);
 
-        validateFerieDates(ferie, event);
+        validateFerieDates(ferie, event.getStartDate(), event.getEndDate());
 
         return ferieRepository.save(ferie);
     }
@@ -103,6 +137,127 @@ public class FerieService {
         return ferieRepository.findAll();
     }
 
+    /**
+     * Exports all vacation requests, streaming rows from a database cursor straight to the writer.
+     *
+     * @param format The output format
+     * @param out The destination writer
+     * @return The number of exported rows
+     * @throws IOException if writing to the destination fails
+     */
+    @Transactional(readOnly = true)
+    public long exportFerie(ExportFormat format, Writer out) throws IOException {
+        try (Stream<FerieExportRow> rows = ferieRepository.streamAllForExport()) {
+            return streamingExporter.write(rows, format, FerieExportRow.CSV_HEADER, FerieExportRow::csvValues, out);
+        }
+    }
+
+    /**
+     * Retrieves the approved vacations overlapping a date range, optionally restricted to a group.
+     * A vacation overlapping [from, to] either is already running on {@code from} or starts inside
+     * the range, so the two sets are read with separate index range scans and concatenated: every
+     * vacation of the first set starts before {@code from}, which keeps the (startDate, id) order.
+     * Both scans are bounded from below by {@code from} (on end_date and start_date respectively),
+     * so the cost is proportional to the current and future vacations, not to the whole history.
+     *
+     * @param from First day of the range (inclusive)
+     * @param to Last day of the range (inclusive)
+     * @param groupId Optional group filter, null for every user
+     * @return List of absences ordered by start date
+     * @throws IllegalArgumentException if the range is invalid
+     * @throws ResourceNotFoundException if the group is not found
+     */
+    @Transactional(readOnly = true)
+    public List<AbsenceDTO> getOverlappingFerie(LocalDate from, LocalDate to, Long groupId) {
+        validateRange(from, to);
+        List<AbsenceDTO> absences = new ArrayList<>();
+        if (groupId == null) {
+            absences.addAll(ferieRepository.findApprovedOngoingAt(from));
+            absences.addAll(ferieRepository.findApprovedStartingIn(from, to));
+            return absences;
+        }
+        if (!userGroupRepository.existsById(groupId)) {
+            throw new ResourceNotFoundException("Gruppo", groupId);
+        }
+        absences.addAll(ferieRepository.findApprovedOngoingAtInGroup(from, groupId));
+        absences.addAll(ferieRepository.findApprovedStartingInInGroup(from, to, groupId));
+        return absences;
+    }
+
+    /**
+     * Computes how many members of a group are available in a date range.
+     * A member is unavailable if any of their approved vacations overlaps the range.
+     *
+     * @param groupId The ID of the group
+     * @param from First day of the range (inclusive)
+     * @param to Last day of the range (inclusive)
+     * @return Member totals and the overlapping absences
+     * @throws IllegalArgumentException if the range is invalid
+     * @throws ResourceNotFoundException if the group is not found
+     */
+    @Transactional(readOnly = true)
+    public GroupCoverageDTO getGroupCoverage(Long groupId, LocalDate from, LocalDate to) {
+        List<AbsenceDTO> absences = getOverlappingFerie(from, to, groupId);
+        long totalMembers = userGroupRepository.countMembers(groupId);
+        long absentMembers = absences.stream().map(AbsenceDTO::getUserId).distinct().count();
+        return new GroupCoverageDTO(groupId, from, to, totalMembers, totalMembers - absentMembers, absences);
+    }
+
+    /**
+     * Computes, for each day of a range, how many members of a group are absent on approved vacation.
+     * Each member's overlapping vacations are merged first so nobody is counted twice on the same day,
+     * then a difference array and a prefix sum produce the daily counts in O(rows + days).
+     *
+     * @param groupId The ID of the group
+     * @param from First day of the range (inclusive)
+     * @param to Last day of the range (inclusive)
+     * @return Member total and absent count for every day of the range
+     * @throws IllegalArgumentException if the range is invalid or longer than one year
+     * @throws ResourceNotFoundException if the group is not found
+     */
+    @Transactional(readOnly = true)
+    public GroupAvailabilityDTO getGroupAvailability(Long groupId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > MAX_HEATMAP_DAYS) {
+            throw new IllegalArgumentException("L'intervallo non può superare " + MAX_HEATMAP_DAYS + " giorni");
+        }
+
+        List<AbsenceDTO> absences = getOverlappingFerie(from, to, groupId);
+
+        // le assenze arrivano ordinate per data di inizio: per ogni utente si uniscono quelle sovrapposte
+        Map<Long, int[]> openRangeByUser = new LinkedHashMap<>();
+        int[] diff = new int[days + 1];
+        for (AbsenceDTO absence : absences) {
+            int start = (int) Math.max(0, ChronoUnit.DAYS.between(from, absence.getStartDate()));
+            int end = (int) Math.min(days - 1, ChronoUnit.DAYS.between(from, absence.getEndDate()));
+            int[] open = openRangeByUser.get(absence.getUserId());
+            if (open != null && start <= open[1] + 1) {
+                open[1] = Math.max(open[1], end);
+                continue;
+            }
+            if (open != null) {
+                diff[open[0]]++;
+                diff[open[1] + 1]--;
+            }
+            openRangeByUser.put(absence.getUserId(), new int[] { start, end });
+        }
+        for (int[] open : openRangeByUser.values()) {
+            diff[open[0]]++;
+            diff[open[1] + 1]--;
+        }
+
+        int[] absentPerDay = new int[days];
+        int running = 0;
+        for (int day = 0; day < days; day++) {
+            running += diff[day];
+            absentPerDay[day] = running;
+        }
+
+        long totalMembers = userGroupRepository.countMembers(groupId);
+        return new GroupAvailabilityDTO(groupId, from, to, totalMembers, absentPerDay);
+    }
+
     /**
      * Updates an existing vacation request with new information.
      * Validates the new dates against the associated event constraints.
@@ -125,13 +280,14 @@ public class FerieService {
         ferie.setStartDate(request.getStartDate());
         ferie.setEndDate(request.getEndDate());
 
-        validateFerieDates(ferie, event);
+        validateFerieDates(ferie, event.getStartDate(), event.getEndDate());
 
         return ferieRepository.save(ferie);
     }
 
     /**
      * Updates the status of a vacation request.
+     * A request can be approved or rejected from any current status, including a previous decision.
      *
      * @param id The ID of the vacation request to update
      * @param status The new status to set
@@ -147,6 +303,86 @@ public class FerieService {
         return ferieRepository.save(ferie);
     }
 
+    /**
+     * Applies a status to many vacation requests at once, selected by ID list or by filter
+     * (event, requesters' group, date range). The transition rule is the same as
+     * {@link #updateFerieStatus}. Current statuses are read with one query, then each group of
+     * requests sharing the same current status is updated with a set-based UPDATE conditioned on
+     * that status, one per chunk of IDs. A request whose status changed between the read and the
+     * UPDATE is not overwritten and is reported as skipped.
+     *
+     * @param request The new status and the IDs or filters selecting the requests
+     * @return Per-ID outcome (updated, unchanged, skipped, not found) and totals
+     * @throws BusinessValidationException if status is missing, or neither/both of IDs and filters are given
+     */
+    @Transactional
+    public BulkUpdateResultDTO updateFerieStatusBulk(BulkFerieStatusRequest request) {
+        if (request.getStatus() == null) {
+            throw new BusinessValidationException("Stato non specificato");
+        }
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byFilter = request.getEventId() != null || request.getGroupId() != null
+                || request.getFrom() != null || request.getTo() != null;
+        if (byIds == byFilter) {
+            throw new BusinessValidationException("Specificare una lista di ID oppure almeno un filtro, non entrambi");
+        }
+
+        List<Long> targetIds;
+        List<FerieRepository.FerieStatus> current;
+        if (byIds) {
+            targetIds = request.getIds().stream().distinct().toList();
+            current = new ArrayList<>();
+            for (List<Long> chunk : chunks(targetIds)) {
+                current.addAll(ferieRepository.findStatusesByIdIn(chunk));
+            }
+        } else {
+            current = ferieRepository.findStatusesByFilter(request.getEventId(), request.getGroupId(),
+                    request.getFrom(), request.getTo());
+            targetIds = current.stream().map(FerieRepository.FerieStatus::getId).toList();
+        }
+
+        // raggruppa per stato attuale (null = in attesa) per condizionare ogni UPDATE sullo stato letto
+        Map<Long, Status> statusById = new HashMap<>();
+        Map<Status, List<Long>> idsByCurrentStatus = new HashMap<>();
+        for (FerieRepository.FerieStatus row : current) {
+            statusById.put(row.getId(), row.getStatus());
+            if (row.getStatus() != request.getStatus()) {
+                idsByCurrentStatus.computeIfAbsent(row.getStatus(), s -> new ArrayList<>()).add(row.getId());
+            }
+        }
+
+        Set<Long> updatedIds = new HashSet<>();
+        for (Map.Entry<Status, List<Long>> entry : idsByCurrentStatus.entrySet()) {
+            for (List<Long> chunk : chunks(entry.getValue())) {
+                int affected = entry.getKey() == null
+                        ? ferieRepository.updatePendingStatusByIdIn(chunk, request.getStatus())
+                        : ferieRepository.updateStatusByIdInAndStatus(chunk, entry.getKey(), request.getStatus());
+                if (affected == chunk.size()) {
+                    updatedIds.addAll(chunk);
+                } else {
+                    // alcune righe sono cambiate nel frattempo: rilegge il chunk per sapere quali sono state scritte
+                    ferieRepository.findStatusesByIdIn(chunk).stream()
+                            .filter(row -> row.getStatus() == request.getStatus())
+                            .forEach(row -> updatedIds.add(row.getId()));
+                }
+            }
+        }
+
+        BulkUpdateResultDTO result = new BulkUpdateResultDTO();
+        for (Long id : targetIds) {
+            if (!statusById.containsKey(id)) {
+                result.add(id, BulkUpdateResultDTO.Outcome.NOT_FOUND);
+            } else if (statusById.get(id) == request.getStatus()) {
+                result.add(id, BulkUpdateResultDTO.Outcome.UNCHANGED);
+            } else if (updatedIds.contains(id)) {
+                result.add(id, BulkUpdateResultDTO.Outcome.UPDATED);
+            } else {
+                result.add(id, BulkUpdateResultDTO.Outcome.SKIPPED);
+            }
+        }
+        return result;
+    }
+
     /**
      * Deletes a vacation request by ID.
      *
@@ -161,15 +397,46 @@ public class FerieService {
         ferieRepository.deleteById(id);
     }
 
+    /**
+     * Splits a list of IDs into chunks that respect database IN-list limits.
+     *
+     * @param ids The IDs to split
+     * @return Consecutive sublists of at most {@link #ID_CHUNK_SIZE} elements
+     */
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += ID_CHUNK_SIZE) {
+            chunks.add(ids.subList(i, Math.min(i + ID_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Validates a date range used for queries.
+     *
+     * @param from First day of the range
+     * @param to Last day of the range
+     * @throws IllegalArgumentException if a date is missing or the range is reversed
+     */
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Le date from e to sono obbligatorie");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("La data from deve essere precedente o uguale alla data to");
+        }
+    }
+
     /**
      * Validates vacation dates against business rules.
      * Ensures dates are present, in correct order, not in the past, and within event boundaries.
      *
      * @param ferie The vacation request to validate
-     * @param event The associated event for boundary validation
+     * @param eventStart Start date of the associated event
+     * @param eventEnd End date of the associated event
      * @throws IllegalArgumentException if any validation rule is violated
      */
-    private void validateFerieDates(Ferie ferie, Event event) {
+    private void validateFerieDates(Ferie ferie, LocalDate eventStart, LocalDate eventEnd) {
         LocalDate today = LocalDate.now();
 
         if (ferie.getStartDate() == null || ferie.getEndDate() == null) {
@@ -181,8 +448,8 @@ public class FerieService {
         if (ferie.getStartDate().isBefore(today) || ferie.getEndDate().isBefore(today)) {
             throw new IllegalArgumentException("Le date non possono essere nel passato");
         }
-        if (ferie.getStartDate().isBefore(event.getStartDate()) ||
-                ferie.getEndDate().isAfter(event.getEndDate())) {
+        if (ferie.getStartDate().isBefore(eventStart) ||
+                ferie.getEndDate().isAfter(eventEnd)) {
             throw new IllegalArgumentException("Le ferie devono rientrare nelle date dell'evento");
         }
     }
@@ -4,31 +4,48 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.gestioneEventi.models.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
 
 import javax.crypto.SecretKey;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 /**
  * Service for handling JWT token operations.
  * Provides functionality for generating access and refresh tokens, as well as token validation and parsing.
  * Uses HMAC-SHA algorithm for token signing.
+ * Verified claims are cached by token digest until the token expires, so repeated requests
+ * with the same token skip signature verification.
  *
  */
 @Service
 public class JwtService {
     private final SecretKey key;
+    private final JwtParser parser;
     private final Duration accessExpiration;
     private final Duration refreshExpiration;
+    private final Cache<String, Claims> verifiedTokenCache;
 
     /**
      * Constructor for JwtService.
@@ -37,19 +54,30 @@ public class JwtService {
      * @param secret The secret key for signing tokens
      * @param accessExpMillis Access token expiration time in milliseconds
      * @param refreshExpMillis Refresh token expiration time in milliseconds
+     * @param cacheMaxSize Maximum number of verified tokens kept in cache
+     * @param meterRegistry Registry where cache hit/miss metrics are published
      */
     public JwtService(
             @Value("${app.jwt.secret}") String secret,
             @Value("${app.jwt.access-expiration}") long accessExpMillis,
-            @Value("${app.jwt.refresh-expiration}") long refreshExpMillis) {
+            @Value("${app.jwt.refresh-expiration}") long refreshExpMillis,
+            @Value("${app.jwt.cache-max-size:10000}") long cacheMaxSize,
+            MeterRegistry meterRegistry) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(key).build();
         this.accessExpiration = Duration.ofMillis(accessExpMillis);
         this.refreshExpiration = Duration.ofMillis(refreshExpMillis);
+        this.verifiedTokenCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokenCache, "jwt-verified-tokens");
     }
 
     /**
      * Generates an access token for the specified user.
-     * The token includes user ID, email, and role information.
+     * The token includes user ID, email, name and role information.
      *
      * @param user The user for whom to generate the access token
      * @return A signed JWT access token
@@ -59,6 +87,7 @@ public class JwtService {
         return Jwts.builder()
                 .subject(user.getEmail())
                 .claim("uid", user.getId())
+                .claim("name", user.getName())
                 .claim("role", user.getRole())
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(now.plus(accessExpiration)))
@@ -93,7 +122,43 @@ public class JwtService {
      * @throws JwtException if the token is invalid or expired
      */
     public Jws<Claims> parseToken(String token) {
-        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
+        return parser.parseSignedClaims(token);
+    }
+
+    /**
+     * Verifies a JWT token in a single pass.
+     * Signature, expiration and claims decoding happen once; the outcome is returned
+     * instead of thrown so callers don't need to validate and parse separately.
+     *
+     * @param token The JWT token to verify
+     * @return The verified claims, or the reason the token was rejected
+     */
+    public TokenVerification verifyToken(String token) {
+        if (token == null || token.isBlank()) {
+            return TokenVerification.failed(TokenFailure.MALFORMED);
+        }
+
+        String digest = digest(token);
+        Claims cached = verifiedTokenCache.getIfPresent(digest);
+        if (cached != null) {
+            return TokenVerification.valid(cached);
+        }
+
+        try {
+            Claims claims = parseToken(token).getPayload();
+            if (claims.getExpiration() != null) {
+                verifiedTokenCache.put(digest, claims);
+            }
+            return TokenVerification.valid(claims);
+        } catch (ExpiredJwtException ex) {
+            return TokenVerification.failed(TokenFailure.EXPIRED);
+        } catch (SignatureException ex) {
+            return TokenVerification.failed(TokenFailure.INVALID_SIGNATURE);
+        } catch (MalformedJwtException | UnsupportedJwtException | IllegalArgumentException ex) {
+            return TokenVerification.failed(TokenFailure.MALFORMED);
+        } catch (JwtException ex) {
+            return TokenVerification.failed(TokenFailure.INVALID);
+        }
     }
 
     /**
@@ -104,11 +169,77 @@ public class JwtService {
      * @return true if the token is valid, false otherwise
      */
     public boolean isTokenValid(String token) {
+        return verifyToken(token).isValid();
+    }
+
+    /**
+     * Hashes a token so the cache never holds the raw bearer credential.
+     *
+     * @param token The raw JWT token
+     * @return Hex-encoded SHA-256 digest of the token
+     */
+    private static String digest(String token) {
         try {
-            parseToken(token);
-            return true;
-        } catch (JwtException ex) {
-            return false;
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 non disponibile", ex);
+        }
+    }
+
+    /**
+     * Expires each cached entry at the token's own exp claim, capped to the access token lifetime.
+     */
+    private class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Duration untilExp = Duration.between(Instant.now(), claims.getExpiration().toInstant());
+            if (untilExp.isNegative()) {
+                return 0;
+            }
+            return (untilExp.compareTo(accessExpiration) < 0 ? untilExp : accessExpiration).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Reason why a token was rejected by {@link #verifyToken(String)}.
+     */
+    public enum TokenFailure {
+        EXPIRED,
+        INVALID_SIGNATURE,
+        MALFORMED,
+        INVALID
+    }
+
+    /**
+     * Outcome of a token verification: either the verified claims or a failure reason.
+     *
+     * @param claims The verified claims, null when the token was rejected
+     * @param failure The rejection reason, null when the token is valid
+     */
+    public record TokenVerification(Claims claims, TokenFailure failure) {
+
+        static TokenVerification valid(Claims claims) {
+            return new TokenVerification(claims, null);
+        }
+
+        static TokenVerification failed(TokenFailure failure) {
+            return new TokenVerification(null, failure);
+        }
+
+        public boolean isValid() {
+            return failure == null;
         }
     }
 }
\ No newline at end of file
@@ -1,45 +1,83 @@
 package com.gestioneEventi.services;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.gestioneEventi.dto.BulkUpdateResultDTO;
+import com.gestioneEventi.dto.partecipation.BulkPartecipationStatusRequest;
 import com.gestioneEventi.dto.partecipation.CreatePartecipation;
+import com.gestioneEventi.dto.partecipation.PartecipationCountsDTO;
+import com.gestioneEventi.dto.partecipation.PartecipationExportRow;
+import com.gestioneEventi.dto.partecipation.PartecipationPageDTO;
+import com.gestioneEventi.dto.partecipation.PartecipationSummaryDTO;
 import com.gestioneEventi.dto.partecipation.UpdatePartecipation;
 import com.gestioneEventi.exceptions.BusinessValidationException;
 import com.gestioneEventi.exceptions.ResourceNotFoundException;
 import com.gestioneEventi.models.Event;
 import com.gestioneEventi.models.Partecipation;
+import com.gestioneEventi.models.PartecipationCounter;
 import com.gestioneEventi.models.PartecipationStatus;
 import com.gestioneEventi.models.Role;
 import com.gestioneEventi.models.User;
 import com.gestioneEventi.repositories.EventRepository;
+import com.gestioneEventi.repositories.PartecipationCounterRepository;
 import com.gestioneEventi.repositories.PartecipationRepository;
 import com.gestioneEventi.repositories.UserRepository;
+import com.gestioneEventi.utils.ExportFormat;
+import com.gestioneEventi.utils.StreamingExporter;
 
 /**
  * Service class for managing user participations in events.
  * Handles creation, updates, and queries for participation records with proper authorization checks.
  * Supports bulk operations for creating multiple participations at once.
+ * Every change keeps the materialized per-event, per-status counters in sync within the same transaction.
  *
  */
 @Service
 public class PartecipationService {
 
+    /**
+     * Maximum number of participation IDs accepted by a single bulk update.
+     */
+    private static final int MAX_BULK_IDS = 1000;
+
+    /**
+     * Maximum number of events whose counters can be requested at once.
+     */
+    private static final int MAX_COUNT_EVENTS = 100;
+
     @Autowired
     private PartecipationRepository partecipationRepository;
 
+    @Autowired
+    private PartecipationCounterRepository partecipationCounterRepository;
+
     @Autowired
     private EventRepository eventRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private StreamingExporter streamingExporter;
+
     /**
      * Creates multiple participation records for users in an event.
      * Validates that all users exist and skips duplicates. All new participations start with PENDING status.
@@ -82,7 +120,9 @@ public class PartecipationService {
                 })
                 .toList();
 
-        return partecipationRepository.saveAll(toCreate);
+        List<Partecipation> saved = partecipationRepository.saveAll(toCreate);
+        adjustCounter(event.getId(), PartecipationStatus.PENDING, saved.size());
+        return saved;
     }
 
     /**
@@ -113,7 +153,8 @@ public class PartecipationService {
      */
     @Transactional
     public Partecipation updatePartecipation(UpdatePartecipation request, Long id, User currentUser) {
-        Partecipation partecipation = partecipationRepository.findById(id)
+        // riga bloccata: lo stato precedente usato per i contatori non può cambiare nel frattempo
+        Partecipation partecipation = partecipationRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Partecipazione", id));
 
         boolean isOwner = partecipation.getUser().getId().equals(currentUser.getId());
@@ -123,8 +164,135 @@ public class PartecipationService {
             throw new BusinessValidationException("Non puoi modificare la partecipazione");
         }
 
+        PartecipationStatus previous = partecipation.getStatus();
         partecipation.setStatus(request.getStatus());
-        return partecipationRepository.save(partecipation);
+        Partecipation saved = partecipationRepository.save(partecipation);
+        if (previous != request.getStatus()) {
+            adjustCounter(partecipation.getEvent().getId(), previous, -1);
+            adjustCounter(partecipation.getEvent().getId(), request.getStatus(), 1);
+        }
+        return saved;
+    }
+
+    /**
+     * Applies a status to many participations with set-based UPDATEs, either to an explicit list of IDs
+     * or to all PENDING participations of an event. The ownership/privilege check is part of the
+     * UPDATE predicate: non-privileged users only affect their own participations.
+     * Every UPDATE is conditioned on the status that was read (one per event and previous status),
+     * and the RSVP counters are moved by the number of rows it actually changed, so a concurrent
+     * update of the same rows can neither be overwritten nor counted twice. Rows changed in the
+     * meantime are reported as skipped.
+     *
+     * @param request The new status and the IDs or event selecting the participations
+     * @param currentUser The user performing the update
+     * @return Per-ID outcome (updated, unchanged, skipped, not found, forbidden) and totals
+     * @throws BusinessValidationException if status is missing, or neither/both of IDs and event are given
+     */
+    @Transactional
+    public BulkUpdateResultDTO updatePartecipationsBulk(BulkPartecipationStatusRequest request, User currentUser) {
+        PartecipationStatus status = request.getStatus();
+        if (status == null)
+            throw new BusinessValidationException("Stato non specificato");
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        if (byIds == (request.getEventId() != null))
+            throw new BusinessValidationException("Specificare una lista di ID oppure un evento, non entrambi");
+
+        boolean isPrivileged = currentUser.getRole() == Role.ADMIN || currentUser.getRole() == Role.EDITOR;
+        Long userId = currentUser.getId();
+        BulkUpdateResultDTO result = new BulkUpdateResultDTO();
+
+        if (!byIds) {
+            List<Long> pendingIds = partecipationRepository.findPendingIdsByEventId(request.getEventId(), userId, isPrivileged);
+            boolean changes = status != PartecipationStatus.PENDING && !pendingIds.isEmpty();
+            Set<Long> skippedIds = Set.of();
+            if (changes) {
+                // l'UPDATE è già condizionato su PENDING: il numero di righe aggiornate è il delta esatto
+                int updated = partecipationRepository.updatePendingStatusByEventId(request.getEventId(), status, userId, isPrivileged);
+                adjustCounter(request.getEventId(), PartecipationStatus.PENDING, -updated);
+                adjustCounter(request.getEventId(), status, updated);
+                if (updated < pendingIds.size()) {
+                    skippedIds = findNotInStatus(pendingIds, status);
+                }
+            }
+            for (Long id : pendingIds) {
+                if (!changes) {
+                    result.add(id, BulkUpdateResultDTO.Outcome.UNCHANGED);
+                } else if (skippedIds.contains(id)) {
+                    result.add(id, BulkUpdateResultDTO.Outcome.SKIPPED);
+                } else {
+                    result.add(id, BulkUpdateResultDTO.Outcome.UPDATED);
+                }
+            }
+            return result;
+        }
+
+        List<Long> ids = request.getIds().stream().distinct().toList();
+        if (ids.size() > MAX_BULK_IDS)
+            throw new BusinessValidationException("Troppe partecipazioni in una sola richiesta (massimo " + MAX_BULK_IDS + ")");
+
+        Map<Long, PartecipationRepository.PartecipationOwnership> rows = new HashMap<>();
+        partecipationRepository.findOwnershipByIdIn(ids).forEach(row -> rows.put(row.getId(), row));
+
+        // raggruppa per evento e stato letto: ogni UPDATE tocca solo righe ancora in quello stato
+        Map<Long, Map<PartecipationStatus, List<Long>>> toUpdate = new HashMap<>();
+        for (PartecipationRepository.PartecipationOwnership row : rows.values()) {
+            if ((isPrivileged || row.getUserId().equals(userId)) && row.getStatus() != status) {
+                toUpdate.computeIfAbsent(row.getEventId(), eventId -> new HashMap<>())
+                        .computeIfAbsent(row.getStatus(), previous -> new ArrayList<>())
+                        .add(row.getId());
+            }
+        }
+        Set<Long> skippedIds = new HashSet<>();
+        toUpdate.forEach((eventId, byStatus) -> {
+            // il contatore dello stato di destinazione riceve un solo incremento per evento
+            int updatedInEvent = 0;
+            for (Map.Entry<PartecipationStatus, List<Long>> group : byStatus.entrySet()) {
+                List<Long> groupIds = group.getValue();
+                int updated = partecipationRepository.updateStatusByIdInAndStatus(
+                        groupIds, group.getKey(), status, userId, isPrivileged);
+                adjustCounter(eventId, group.getKey(), -updated);
+                updatedInEvent += updated;
+                if (updated < groupIds.size()) {
+                    skippedIds.addAll(findNotInStatus(groupIds, status));
+                }
+            }
+            adjustCounter(eventId, status, updatedInEvent);
+        });
+
+        for (Long id : ids) {
+            PartecipationRepository.PartecipationOwnership row = rows.get(id);
+            if (row == null) {
+                result.add(id, BulkUpdateResultDTO.Outcome.NOT_FOUND);
+            } else if (!isPrivileged && !row.getUserId().equals(userId)) {
+                result.add(id, BulkUpdateResultDTO.Outcome.FORBIDDEN);
+            } else if (row.getStatus() == status) {
+                result.add(id, BulkUpdateResultDTO.Outcome.UNCHANGED);
+            } else if (skippedIds.contains(id)) {
+                result.add(id, BulkUpdateResultDTO.Outcome.SKIPPED);
+            } else {
+                result.add(id, BulkUpdateResultDTO.Outcome.UPDATED);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Re-reads a set of participations after a conditional UPDATE that changed fewer rows than
+     * expected, to find those it did not write.
+     *
+     * @param ids The participations targeted by the UPDATE
+     * @param status The status the UPDATE set
+     * @return IDs of the participations not in {@code status}, i.e. changed or deleted concurrently
+     */
+    private Set<Long> findNotInStatus(List<Long> ids, PartecipationStatus status) {
+        Set<Long> skipped = new HashSet<>(ids);
+        for (int i = 0; i < ids.size(); i += MAX_BULK_IDS) {
+            partecipationRepository.findOwnershipByIdIn(ids.subList(i, Math.min(i + MAX_BULK_IDS, ids.size())))
+                    .stream()
+                    .filter(row -> row.getStatus() == status)
+                    .forEach(row -> skipped.remove(row.getId()));
+        }
+        return skipped;
     }
 
     /**
@@ -136,6 +304,22 @@ public class PartecipationService {
         return partecipationRepository.findAll();
     }
 
+    /**
+     * Exports all participations, streaming rows from a database cursor straight to the writer.
+     *
+     * @param format The output format
+     * @param out The destination writer
+     * @return The number of exported rows
+     * @throws IOException if writing to the destination fails
+     */
+    @Transactional(readOnly = true)
+    public long exportPartecipations(ExportFormat format, Writer out) throws IOException {
+        try (Stream<PartecipationExportRow> rows = partecipationRepository.streamAllForExport()) {
+            return streamingExporter.write(rows, format, PartecipationExportRow.CSV_HEADER,
+                    PartecipationExportRow::csvValues, out);
+        }
+    }
+
     /**
      * Retrieves all participations for a specific event.
      *
@@ -146,6 +330,40 @@ public class PartecipationService {
         return partecipationRepository.findByEventId(eventId);
     }
 
+    /**
+     * Retrieves a page of an event's participations as flat projections, without loading the event graph.
+     *
+     * @param eventId The ID of the event
+     * @param status Optional status filter, or null for all statuses
+     * @param page Zero-based page number
+     * @param size Page size
+     * @return The requested page, ordered by status and participation ID
+     */
+    @Transactional(readOnly = true)
+    public PartecipationPageDTO getPartecipationPageByEventId(Long eventId, PartecipationStatus status, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(page, size);
+        return toPage(status == null
+                ? partecipationRepository.findSummariesByEventId(eventId, pageRequest)
+                : partecipationRepository.findSummariesByEventIdAndStatus(eventId, status, pageRequest));
+    }
+
+    /**
+     * Retrieves a page of a user's participations as flat projections, without loading the event graph.
+     *
+     * @param userId The ID of the user
+     * @param page Zero-based page number
+     * @param size Page size
+     * @return The requested page, ordered by event ID and participation ID
+     */
+    @Transactional(readOnly = true)
+    public PartecipationPageDTO getPartecipationPageByUserId(Long userId, int page, int size) {
+        return toPage(partecipationRepository.findSummariesByUserId(userId, PageRequest.of(page, size)));
+    }
+
+    private static PartecipationPageDTO toPage(Slice<PartecipationSummaryDTO> slice) {
+        return new PartecipationPageDTO(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+
     /**
      * Retrieves all participations for a specific user.
      *
@@ -176,9 +394,48 @@ public class PartecipationService {
      */
     @Transactional
     public void deletePartecipation(Long id) {
-        if (!partecipationRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Partecipazione", id);
+        Partecipation partecipation = partecipationRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Partecipazione", id));
+        partecipationRepository.delete(partecipation);
+        adjustCounter(partecipation.getEvent().getId(), partecipation.getStatus(), -1);
+    }
+
+    /**
+     * Reads the materialized RSVP counters of a page of events with a single indexed query.
+     * Events without participations are reported with all counters at zero.
+     *
+     * @param eventIds The IDs of the events
+     * @return One entry per requested event, in request order
+     * @throws BusinessValidationException if no IDs or too many IDs are given
+     */
+    @Transactional(readOnly = true)
+    public List<PartecipationCountsDTO> getPartecipationCounts(Collection<Long> eventIds) {
+        List<Long> ids = eventIds == null ? List.of() : eventIds.stream().distinct().toList();
+        if (ids.isEmpty())
+            throw new BusinessValidationException("Nessun evento specificato");
+        if (ids.size() > MAX_COUNT_EVENTS)
+            throw new BusinessValidationException("Troppi eventi in una sola richiesta (massimo " + MAX_COUNT_EVENTS + ")");
+
+        Map<Long, PartecipationCountsDTO> counts = new LinkedHashMap<>();
+        ids.forEach(id -> counts.put(id, new PartecipationCountsDTO(id)));
+        for (PartecipationCounter counter : partecipationCounterRepository.findAllByEventIdIn(ids)) {
+            PartecipationCountsDTO dto = counts.get(counter.getId().getEventId());
+            switch (counter.getId().getStatus()) {
+                case PENDING -> dto.setPending(counter.getTotal());
+                case ACCEPTED -> dto.setAccepted(counter.getTotal());
+                case REJECTED -> dto.setRejected(counter.getTotal());
+            }
+        }
+        return List.copyOf(counts.values());
+    }
+
+    /**
+     * Adds a delta to the RSVP counter of an event and status. No-op for null statuses or zero deltas.
+     */
+    private void adjustCounter(Long eventId, PartecipationStatus status, long delta) {
+        if (eventId == null || status == null || delta == 0) {
+            return;
         }
-        partecipationRepository.deleteById(id);
+        partecipationCounterRepository.adjust(eventId, status.ordinal(), delta);
     }
 }
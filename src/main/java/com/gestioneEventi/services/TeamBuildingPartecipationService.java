@@ -1,6 +1,7 @@
 package com.gestioneEventi.services;
 
 import com.gestioneEventi.dto.teambuilding.CreateTeamBuildingPartecipationRequest;
+import com.gestioneEventi.dto.teambuilding.DateWindowDTO;
 import com.gestioneEventi.exceptions.ResourceNotFoundException;
 import com.gestioneEventi.models.*;
 import com.gestioneEventi.repositories.*;
@@ -9,11 +10,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Service class for managing team building event participations.
@@ -32,6 +34,12 @@ public class TeamBuildingPartecipationService {
     @Autowired
     private ActivityRepository activityRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ActivityVoteCounter activityVoteCounter;
+
     @Transactional
     public TeamBuildingPartecipation createPartecipation(Long eventId, CreateTeamBuildingPartecipationRequest request, User user) {
         Event event = eventRepository.findById(eventId)
@@ -53,7 +61,7 @@ public class TeamBuildingPartecipationService {
 
         TeamBuildingPartecipation partecipation = new TeamBuildingPartecipation();
         partecipation.setEvent(event);
-        partecipation.setUser(user);
+        partecipation.setUser(userRepository.getReferenceById(user.getId()));
 
         if (request.getActivityId() == null) {
             throw new IllegalArgumentException("Devi selezionare un'attività.");
@@ -79,7 +87,11 @@ public class TeamBuildingPartecipationService {
         partecipation.setStartDate(request.getStartDate());
         partecipation.setEndDate(request.getEndDate());
 
-        return partecipationRepository.save(partecipation);
+        TeamBuildingPartecipation saved = partecipationRepository.save(partecipation);
+        if (existingParticipations.isEmpty()) {
+            activityVoteCounter.incrementAfterCommit(eventId, request.getActivityId());
+        }
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -95,27 +107,116 @@ public class TeamBuildingPartecipationService {
         return partecipationRepository.findByUser(user);
     }
 
+    /**
+     * Counts, for each activity of an event, how many distinct users chose it.
+     * Served from the live counters kept by {@link ActivityVoteCounter}; the grouped SQL count
+     * is only used for events that have no counters yet.
+     *
+     * @param eventId The ID of the team building event
+     * @return Map from activity ID to number of distinct voters
+     * @throws ResourceNotFoundException if the event is not found
+     */
     @Transactional(readOnly = true)
-    public java.util.Map<Long, Long> getActivityPopularity(Long eventId) {
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new ResourceNotFoundException("Evento", eventId));
+    public Map<Long, Long> getActivityPopularity(Long eventId) {
+        Map<Long, Long> popularity = activityVoteCounter.getVotes(eventId);
+        if (popularity != null) {
+            return popularity;
+        }
+        if (!eventRepository.existsById(eventId)) {
+            throw new ResourceNotFoundException("Evento", eventId);
+        }
 
-        List<TeamBuildingPartecipation> partecipations = partecipationRepository.findByEvent(event);
+        popularity = new HashMap<>();
+        for (TeamBuildingPartecipationRepository.ActivityVotes votes : partecipationRepository.countVotesByActivity(eventId)) {
+            popularity.put(votes.getActivityId(), votes.getVotes());
+        }
+        return popularity;
+    }
 
-        Set<String> uniqueUserActivityPairs = new HashSet<>();
-        for (TeamBuildingPartecipation p : partecipations) {
-            Long userId = p.getUser().getId();
-            Long activityId = p.getChosenActivityId();
-            uniqueUserActivityPairs.add(userId + "-" + activityId);
+    /**
+     * Finds the best date windows of a given length for a team building event.
+     * A participant covers a window when one of their proposals contains it entirely;
+     * windows are ranked by number of distinct covering participants (ties: earliest first).
+     * Each proposal is turned into the range of valid window start days, overlapping ranges
+     * of the same user are merged, and a sweep line over the range boundaries yields the
+     * coverage of every start day in O(n log n).
+     *
+     * @param eventId The ID of the team building event
+     * @param length Length of the window in days
+     * @param top Maximum number of windows to return
+     * @param activityId Optional activity filter, null to consider every proposal
+     * @return Up to {@code top} windows ordered by coverage
+     * @throws ResourceNotFoundException if the event is not found
+     * @throws IllegalArgumentException if the event is not TEAM_BUILDING or the parameters are invalid
+     */
+    @Transactional(readOnly = true)
+    public List<DateWindowDTO> getBestDateWindows(Long eventId, int length, int top, Long activityId) {
+        EventType eventType = eventRepository.findEventTypeById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Evento", eventId));
+        if (eventType != EventType.TEAM_BUILDING) {
+            throw new IllegalArgumentException("Le finestre di date sono disponibili solo per eventi TEAM_BUILDING.");
+        }
+        if (length < 1 || top < 1) {
+            throw new IllegalArgumentException("Durata e numero di risultati devono essere positivi.");
         }
 
-        Map<Long, Long> popularity = new HashMap<>();
-        for (String pair : uniqueUserActivityPairs) {
-            Long activityId = Long.parseLong(pair.split("-")[1]);
-            popularity.put(activityId, popularity.getOrDefault(activityId, 0L) + 1);
+        // intervalli [primo, ultimo] di giorni di inizio validi, raggruppati per utente
+        Map<Long, List<long[]>> startRangesByUser = new HashMap<>();
+        for (TeamBuildingPartecipationRepository.ProposedRange range : partecipationRepository.findProposedRangesByEventId(eventId)) {
+            if (activityId != null && !activityId.equals(range.getActivityId())) {
+                continue;
+            }
+            long firstStart = range.getStartDate().toEpochDay();
+            long lastStart = range.getEndDate().toEpochDay() - (length - 1);
+            if (firstStart <= lastStart) {
+                startRangesByUser.computeIfAbsent(range.getUserId(), id -> new ArrayList<>())
+                        .add(new long[] { firstStart, lastStart });
+            }
         }
 
-        return popularity;
+        // punti di sweep: +1 all'inizio di un intervallo, -1 il giorno dopo la fine
+        List<long[]> boundaries = new ArrayList<>();
+        for (List<long[]> ranges : startRangesByUser.values()) {
+            ranges.sort(Comparator.comparingLong(r -> r[0]));
+            long[] current = ranges.get(0).clone();
+            for (long[] next : ranges.subList(1, ranges.size())) {
+                if (next[0] <= current[1] + 1) {
+                    current[1] = Math.max(current[1], next[1]);
+                } else {
+                    boundaries.add(new long[] { current[0], 1 });
+                    boundaries.add(new long[] { current[1] + 1, -1 });
+                    current = next.clone();
+                }
+            }
+            boundaries.add(new long[] { current[0], 1 });
+            boundaries.add(new long[] { current[1] + 1, -1 });
+        }
+        boundaries.sort(Comparator.comparingLong(b -> b[0]));
+
+        // segmenti [primo, ultimo] di giorni di inizio con copertura costante
+        List<long[]> segments = new ArrayList<>();
+        long coverage = 0;
+        for (int i = 0; i < boundaries.size(); i++) {
+            long day = boundaries.get(i)[0];
+            coverage += boundaries.get(i)[1];
+            boolean lastAtDay = i + 1 == boundaries.size() || boundaries.get(i + 1)[0] != day;
+            if (lastAtDay && coverage > 0 && i + 1 < boundaries.size()) {
+                segments.add(new long[] { day, boundaries.get(i + 1)[0] - 1, coverage });
+            }
+        }
+        segments.sort(Comparator.<long[]>comparingLong(s -> -s[2]).thenComparingLong(s -> s[0]));
+
+        List<DateWindowDTO> windows = new ArrayList<>();
+        for (long[] segment : segments) {
+            for (long start = segment[0]; start <= segment[1] && windows.size() < top; start++) {
+                windows.add(new DateWindowDTO(LocalDate.ofEpochDay(start),
+                        LocalDate.ofEpochDay(start + length - 1), segment[2]));
+            }
+            if (windows.size() >= top) {
+                break;
+            }
+        }
+        return windows;
     }
 
     @Transactional
@@ -129,5 +230,6 @@ public class TeamBuildingPartecipationService {
         }
 
         partecipationRepository.deleteAll(participations);
+        activityVoteCounter.decrementAfterCommit(eventId, participations.get(0).getChosenActivityId());
     }
 }
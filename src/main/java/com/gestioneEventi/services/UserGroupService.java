@@ -2,6 +2,8 @@ package com.gestioneEventi.services;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -9,14 +11,17 @@ import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.gestioneEventi.dto.userGroup.UpdateGroupRequest;
 import com.gestioneEventi.exceptions.BusinessValidationException;
 import com.gestioneEventi.exceptions.ResourceNotFoundException;
+import com.gestioneEventi.exceptions.ServiceUnavailableException;
 import com.gestioneEventi.models.User;
 import com.gestioneEventi.models.UserGroup;
 import com.gestioneEventi.repositories.UserGroupRepository;
 import com.gestioneEventi.repositories.UserRepository;
+import com.gestioneEventi.services.EmployeeDirectoryClient.Verdict;
 
 /**
  * Service class for managing user groups.
@@ -32,6 +37,12 @@ public class UserGroupService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EmployeeDirectoryClient directoryClient;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     public List<UserGroup> getMyGroups(Long id) {
         return userGroupRepository.findAllByUserId(id);
     }
@@ -40,22 +51,56 @@ public class UserGroupService {
         return userGroupRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public UserGroup getGroupById(Long id) {
-        return userGroupRepository.findById(id)
+        return userGroupRepository.findWithMembersById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Gruppo non trovato"));
     }
 
-    @Transactional
+    /**
+     * Creates a group with the given members.
+     * Members are checked against the employee directory before any transaction is opened, so the
+     * remote call never holds a database connection; the group is then saved in its own transaction.
+     *
+     * @param groupName Name of the new group
+     * @param memberEmails Emails of the members; case variants of the same address count once
+     * @return The saved group with its members
+     * @throws BusinessValidationException if the request is invalid or a member is not in the directory
+     * @throws ResourceNotFoundException if a member has no user account
+     * @throws ServiceUnavailableException if the directory is unreachable and some members could not be checked
+     */
     public UserGroup createGroup(String groupName, List<String> memberEmails) {
         validateGroupCreationRequest(groupName, memberEmails);
+        List<String> emails = normalizeEmails(memberEmails);
+
+        // Verifica sul directory aziendale con un'unica richiesta batch, fuori dalla transazione
+        Map<String, Verdict> verdicts = directoryClient.areEmployees(emails);
+        List<String> unchecked = emails.stream()
+                .filter(email -> verdicts.get(email) == Verdict.UNAVAILABLE)
+                .toList();
+        if (!unchecked.isEmpty()) {
+            throw new ServiceUnavailableException(
+                    "Directory aziendale non raggiungibile, impossibile verificare: " + String.join(", ", unchecked));
+        }
+        List<String> notEmployees = emails.stream()
+                .filter(email -> verdicts.get(email) != Verdict.EMPLOYEE)
+                .toList();
+        if (!notEmployees.isEmpty()) {
+            throw new BusinessValidationException(
+                    "Utenti non presenti nel directory aziendale: " + String.join(", ", notEmployees));
+        }
 
+        return transactionTemplate.execute(status -> saveGroup(groupName, emails));
+    }
+
+    private UserGroup saveGroup(String groupName, List<String> memberEmails) {
         // Carica tutti gli utenti
         List<User> foundUsers = userRepository.findAllByEmailInWithGroups(memberEmails);
 
         // Verifica che tutti gli utenti esistano
         if (foundUsers.size() != memberEmails.size()) {
             Set<String> foundEmails = foundUsers.stream()
-                    .map(User::getEmail)
+                    .map(user -> user.getEmail().toLowerCase())
                     .collect(Collectors.toSet());
 
             List<String> missingEmails = memberEmails.stream()
@@ -93,16 +138,35 @@ public class UserGroupService {
         }
     }
 
+    /**
+     * Trims, lower-cases and de-duplicates emails, so case variants of the same address count once.
+     */
+    private static List<String> normalizeEmails(List<String> emails) {
+        return emails.stream()
+                .filter(Objects::nonNull)
+                .map(email -> email.trim().toLowerCase())
+                .distinct()
+                .toList();
+    }
+
     @Transactional
     public Optional<UserGroup> updateGroup(Long id, UpdateGroupRequest request) {
-        return userGroupRepository.findById(id).map(group -> {
+        return userGroupRepository.findWithMembersById(id).map(group -> {
             group.setName(request.getGroupName());
 
-            // calcola i nuovi membri
-            Set<User> newMembers = request.getMemberEmails().stream()
-                    .map(email -> userRepository.findByEmail(email)
-                            .orElseThrow(() -> new ResourceNotFoundException("Utente non trovato")))
+            // calcola i nuovi membri con una sola query
+            List<String> memberEmails = normalizeEmails(request.getMemberEmails());
+            Set<User> newMembers = new HashSet<>(userRepository.findAllByEmailInWithGroups(memberEmails));
+            Set<String> foundEmails = newMembers.stream()
+                    .map(user -> user.getEmail().toLowerCase())
                     .collect(Collectors.toSet());
+            List<String> missingEmails = memberEmails.stream()
+                    .filter(email -> !foundEmails.contains(email))
+                    .toList();
+            if (!missingEmails.isEmpty()) {
+                throw new ResourceNotFoundException(
+                        "Utenti non trovati: " + String.join(", ", missingEmails));
+            }
 
             // --- RIMOZIONE ---
             Set<User> oldMembers = new HashSet<>(group.getMembers());
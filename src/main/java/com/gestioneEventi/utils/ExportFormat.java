@@ -0,0 +1,33 @@
+package com.gestioneEventi.utils;
+
+/**
+ * Output formats supported by the streaming export endpoints.
+ */
+public enum ExportFormat {
+
+    /**
+     * Comma-separated values with a header row (RFC 4180 quoting).
+     */
+    CSV("text/csv", "csv"),
+
+    /**
+     * Newline-delimited JSON, one object per row.
+     */
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
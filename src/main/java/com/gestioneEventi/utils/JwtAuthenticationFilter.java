@@ -11,6 +11,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.gestioneEventi.models.Role;
 import com.gestioneEventi.models.User;
 import com.gestioneEventi.repositories.UserRepository;
 import com.gestioneEventi.services.JwtService;
@@ -29,9 +30,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
 
+    private final boolean claimsOnly;
+
     public JwtAuthenticationFilter(JwtService jwtService, UserRepository userRepository) {
+        this(jwtService, userRepository, false);
+    }
+
+    /**
+     * @param claimsOnly when true the principal is built from the access token claims
+     *                   (uid, name, role, subject) without querying the users table
+     */
+    public JwtAuthenticationFilter(JwtService jwtService, UserRepository userRepository, boolean claimsOnly) {
         this.jwtService = jwtService;
         this.userRepository = userRepository;
+        this.claimsOnly = claimsOnly;
     }
 
     @Override
@@ -58,14 +70,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (token != null) {
             try {
-                if (jwtService.isTokenValid(token)) {
-                    Claims claims = jwtService.parseToken(token).getPayload();
+                JwtService.TokenVerification verification = jwtService.verifyToken(token);
+                if (verification.isValid()) {
+                    Claims claims = verification.claims();
                     String email = claims.getSubject();
                     String role = claims.get("role", String.class);
 
                     GrantedAuthority authority = new SimpleGrantedAuthority(role);
-                    User user = userRepository.findByEmail(email)
-                            .orElseThrow(() -> new UsernameNotFoundException("Utente non trovato"));
+                    User user = resolvePrincipal(claims, email, role);
 
                     UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(user, null,
                             List.of(authority));
@@ -76,4 +88,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Builds the authenticated principal.
+     * In claims-only mode the user is a detached copy of id, email, name and role as they were when
+     * the token was issued, so it equals the stored user until one of them changes. Its groups are
+     * always empty: services that need them, or the managed entity, load it through the repository by id.
+     * Tokens issued before the uid claim existed fall back to the database lookup.
+     */
+    private User resolvePrincipal(Claims claims, String email, String role) {
+        Long uid = claims.get("uid", Long.class);
+        if (claimsOnly && uid != null && role != null) {
+            User user = new User();
+            user.setId(uid);
+            user.setEmail(email);
+            user.setName(claims.get("name", String.class));
+            user.setRole(Role.valueOf(role));
+            return user;
+        }
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("Utente non trovato"));
+    }
+}
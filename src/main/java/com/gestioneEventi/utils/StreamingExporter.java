@@ -0,0 +1,106 @@
+package com.gestioneEventi.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes a stream of rows to a {@link Writer} as CSV or NDJSON, one row at a time,
+ * so memory usage does not depend on the number of exported rows.
+ */
+@Component
+public class StreamingExporter {
+
+    /**
+     * JDBC fetch size for export queries. {@code Integer.MIN_VALUE} on a forward-only, read-only
+     * statement makes MySQL Connector/J stream rows one at a time instead of buffering the whole
+     * result set. It applies to the annotated statement only, so other queries keep the default
+     * buffered behaviour; the connection must not run other statements until the stream is closed.
+     */
+    public static final String MYSQL_STREAMING_FETCH_SIZE = "-2147483648";
+
+    /**
+     * Number of rows written between two explicit flushes of the output.
+     */
+    private static final int FLUSH_EVERY = 500;
+
+    /**
+     * First characters that make a spreadsheet treat a cell as a formula.
+     */
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Writes all rows of the stream in the requested format.
+     *
+     * @param rows The rows to export; consumed but not closed
+     * @param format The output format
+     * @param header CSV column names
+     * @param csvValues Extracts the CSV column values of a row, in header order
+     * @param out The destination writer
+     * @return The number of rows written
+     * @throws IOException if writing to the destination fails
+     */
+    public <T> long write(Stream<T> rows, ExportFormat format, List<String> header,
+            Function<T, List<Object>> csvValues, Writer out) throws IOException {
+        if (format == ExportFormat.CSV) {
+            writeCsvLine(header, out);
+        }
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            if (format == ExportFormat.CSV) {
+                writeCsvLine(csvValues.apply(row), out);
+            } else {
+                out.write(objectMapper.writeValueAsString(row));
+                out.write('\n');
+            }
+            if (++count % FLUSH_EVERY == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+        return count;
+    }
+
+    private static void writeCsvLine(List<?> values, Writer out) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(escapeCsv(values.get(i)));
+        }
+        out.write("\r\n");
+    }
+
+    /**
+     * Formats a CSV cell. Text starting with a character that spreadsheets read as the start of
+     * a formula is prefixed with {@code '} so it is shown as text instead of being evaluated;
+     * numbers and dates are written as they are. Cells containing separators, quotes or line
+     * breaks are quoted, with embedded quotes doubled.
+     */
+    private static String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (value instanceof CharSequence && !text.isEmpty() && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
@@ -0,0 +1,142 @@
+package com.gestioneEventi.configurations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.gestioneEventi.models.Event;
+import com.gestioneEventi.models.EventType;
+import com.gestioneEventi.models.Partecipation;
+import com.gestioneEventi.models.PartecipationStatus;
+import com.gestioneEventi.models.Role;
+import com.gestioneEventi.models.User;
+import com.gestioneEventi.repositories.PartecipationCounterRepository;
+
+/**
+ * Runs the reconciliation and counter upserts against the database, on H2 in MySQL mode,
+ * across more events than fit in one reconciliation batch.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import(PartecipationCounterReconciler.class)
+class PartecipationCounterReconcilerTest {
+
+    private static final long MISSING_EVENT_ID = 999_999L;
+
+    @Autowired
+    private PartecipationCounterReconciler reconciler;
+
+    @Autowired
+    private PartecipationCounterRepository partecipationCounterRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Event> events;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("mario.rossi@example.com");
+        user.setRole(Role.USER);
+        entityManager.persist(user);
+
+        events = new ArrayList<>();
+        for (int i = 0; i < PartecipationCounterReconciler.EVENT_BATCH_SIZE + 5; i++) {
+            Event event = new Event();
+            event.setTitle("Evento " + i);
+            event.setStartDate(LocalDate.of(2025, 6, 1));
+            event.setEndDate(LocalDate.of(2025, 6, 2));
+            event.setEventType(EventType.GENERICO);
+            entityManager.persist(event);
+            events.add(event);
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void reconcileRealignsCountersAcrossBatches() {
+        Event first = events.get(0);
+        Event last = events.get(events.size() - 1);
+        partecipate(first, PartecipationStatus.ACCEPTED);
+        partecipate(first, PartecipationStatus.ACCEPTED);
+        partecipate(first, PartecipationStatus.PENDING);
+        partecipate(last, PartecipationStatus.REJECTED);
+        entityManager.flush();
+
+        // contatori sbagliati, obsoleti o di eventi non più esistenti
+        counter(first.getId(), PartecipationStatus.ACCEPTED, 9);
+        counter(first.getId(), PartecipationStatus.REJECTED, 4);
+        counter(MISSING_EVENT_ID, PartecipationStatus.PENDING, 3);
+
+        reconciler.reconcile();
+
+        assertThat(counters()).containsOnly(
+                Map.entry(first.getId() + "/" + PartecipationStatus.ACCEPTED.ordinal(), 2L),
+                Map.entry(first.getId() + "/" + PartecipationStatus.PENDING.ordinal(), 1L),
+                Map.entry(last.getId() + "/" + PartecipationStatus.REJECTED.ordinal(), 1L));
+    }
+
+    @Test
+    void reconcileIsIdempotent() {
+        partecipate(events.get(3), PartecipationStatus.ACCEPTED);
+        entityManager.flush();
+
+        reconciler.reconcile();
+        Map<String, Long> once = counters();
+        reconciler.reconcile();
+
+        assertThat(counters()).isEqualTo(once).hasSize(1);
+    }
+
+    @Test
+    void adjustCreatesThenIncrementsTheCounter() {
+        Long eventId = events.get(0).getId();
+
+        partecipationCounterRepository.adjust(eventId, PartecipationStatus.ACCEPTED.ordinal(), 3);
+        partecipationCounterRepository.adjust(eventId, PartecipationStatus.ACCEPTED.ordinal(), -1);
+
+        assertThat(counters()).containsOnly(Map.entry(eventId + "/" + PartecipationStatus.ACCEPTED.ordinal(), 2L));
+    }
+
+    private void partecipate(Event event, PartecipationStatus status) {
+        Partecipation partecipation = new Partecipation();
+        partecipation.setEvent(event);
+        partecipation.setUser(user);
+        partecipation.setStatus(status);
+        entityManager.persist(partecipation);
+    }
+
+    private void counter(Long eventId, PartecipationStatus status, long total) {
+        jdbcTemplate.update("INSERT INTO partecipation_counter (event_id, status, total) VALUES (?, ?, ?)",
+                eventId, status.ordinal(), total);
+    }
+
+    private Map<String, Long> counters() {
+        Map<String, Long> counters = new HashMap<>();
+        jdbcTemplate.query("SELECT event_id, status, total FROM partecipation_counter",
+                rs -> {
+                    counters.put(rs.getLong("event_id") + "/" + rs.getInt("status"), rs.getLong("total"));
+                });
+        return counters;
+    }
+}
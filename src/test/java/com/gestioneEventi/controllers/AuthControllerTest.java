@@ -0,0 +1,145 @@
+package com.gestioneEventi.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.gestioneEventi.models.Role;
+import com.gestioneEventi.models.User;
+import com.gestioneEventi.repositories.UserRepository;
+import com.gestioneEventi.services.JwtService;
+import com.gestioneEventi.services.StubDirectoryServer;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.google.firebase.auth.FirebaseToken;
+
+/**
+ * Tests the login flow of {@link AuthController} against an in-process employee directory:
+ * concurrent logins share one directory lookup, and only invalid tokens are mapped to 401.
+ */
+class AuthControllerTest {
+
+    private static final String EMAIL = "mario.rossi@example.com";
+
+    private StubDirectoryServer directory;
+    private MockedStatic<FirebaseAuth> firebaseStatic;
+    private FirebaseAuth firebaseAuth;
+    private UserRepository userRepository;
+    private AuthController controller;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        directory = new StubDirectoryServer().withEmployees(EMAIL).withDelayMillis(2000);
+
+        firebaseAuth = mock(FirebaseAuth.class);
+        firebaseStatic = mockStatic(FirebaseAuth.class);
+        firebaseStatic.when(FirebaseAuth::getInstance).thenReturn(firebaseAuth);
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(EMAIL);
+        user.setName("Mario Rossi");
+        user.setRole(Role.USER);
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmailWithGroups(EMAIL)).thenReturn(Optional.of(user));
+
+        JwtService jwtService = mock(JwtService.class);
+        when(jwtService.generateAccessToken(any())).thenReturn("access");
+        when(jwtService.generateRefreshToken(any())).thenReturn("refresh");
+
+        controller = new AuthController();
+        ReflectionTestUtils.setField(controller, "directoryClient", directory.newClient(false));
+        ReflectionTestUtils.setField(controller, "userRepository", userRepository);
+        ReflectionTestUtils.setField(controller, "jwtService", jwtService);
+        ReflectionTestUtils.setField(controller, "authExecutor", (Executor) Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        firebaseStatic.close();
+        directory.close();
+    }
+
+    @Test
+    void concurrentLoginsShareOneDirectoryLookupWithoutBlocking() throws Exception {
+        givenToken(EMAIL);
+
+        List<CompletableFuture<ResponseEntity<?>>> logins = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            logins.add(controller.authenticate(tokenRequest()));
+        }
+        long submitMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // il directory risponde dopo 2 s: le richieste non devono averlo atteso
+        assertThat(submitMillis).isLessThan(1500);
+        assertThat(logins).noneMatch(CompletableFuture::isDone);
+
+        for (CompletableFuture<ResponseEntity<?>> login : logins) {
+            assertThat(login.get(5, TimeUnit.SECONDS).getStatusCode().value()).isEqualTo(200);
+        }
+        assertThat(directory.singleRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidTokenIsUnauthorized() throws Exception {
+        when(firebaseAuth.verifyIdToken(anyString())).thenThrow(mock(FirebaseAuthException.class));
+
+        ResponseEntity<?> response = controller.authenticate(tokenRequest()).get(5, TimeUnit.SECONDS);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(401);
+        assertThat(directory.totalRequests()).isZero();
+    }
+
+    @Test
+    void unexpectedVerificationErrorIsNotMappedTo401() throws Exception {
+        when(firebaseAuth.verifyIdToken(anyString())).thenThrow(new IllegalStateException("FirebaseApp non inizializzata"));
+
+        assertThatThrownBy(() -> controller.authenticate(tokenRequest()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void loginFailurePropagatesInsteadOfBecoming401() throws Exception {
+        givenToken(EMAIL);
+        when(userRepository.findByEmailWithGroups(EMAIL)).thenThrow(new IllegalStateException("database non raggiungibile"));
+
+        CompletableFuture<ResponseEntity<?>> login = controller.authenticate(tokenRequest());
+
+        assertThatThrownBy(login::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    private void givenToken(String email) throws Exception {
+        FirebaseToken token = mock(FirebaseToken.class);
+        when(token.getEmail()).thenReturn(email);
+        when(token.getName()).thenReturn("Mario Rossi");
+        when(firebaseAuth.verifyIdToken(anyString())).thenReturn(token);
+    }
+
+    private static AuthController.TokenRequest tokenRequest() {
+        AuthController.TokenRequest request = new AuthController.TokenRequest();
+        request.setIdToken("id-token");
+        return request;
+    }
+}
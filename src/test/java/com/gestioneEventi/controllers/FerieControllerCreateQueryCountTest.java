@@ -0,0 +1,96 @@
+package com.gestioneEventi.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.gestioneEventi.dto.ferie.CreateFerieRequest;
+import com.gestioneEventi.dto.ferie.FerieCreatedDTO;
+import com.gestioneEventi.models.Event;
+import com.gestioneEventi.models.EventType;
+import com.gestioneEventi.models.Role;
+import com.gestioneEventi.models.Status;
+import com.gestioneEventi.models.User;
+import com.gestioneEventi.models.UserGroup;
+import com.gestioneEventi.services.FerieService;
+import com.gestioneEventi.utils.StreamingExporter;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checks that submitting a vacation request takes the same number of statements whatever the
+ * number of people invited to the event. The test transaction stands in for open-session-in-view.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({ FerieController.class, FerieService.class })
+class FerieControllerCreateQueryCountTest {
+
+    @Autowired
+    private FerieController ferieController;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private StreamingExporter streamingExporter;
+
+    @ParameterizedTest
+    @ValueSource(ints = { 5, 200 })
+    void createFerieDoesNotLoadTheInvitees(int invitees) {
+        UserGroup group = new UserGroup();
+        group.setName("Tutti");
+        entityManager.persist(group);
+        Event event = new Event();
+        event.setTitle("Chiusura estiva");
+        event.setStartDate(LocalDate.now().plusDays(10));
+        event.setEndDate(LocalDate.now().plusDays(30));
+        event.setEventType(EventType.FERIE);
+        User requester = null;
+        for (int i = 0; i < invitees; i++) {
+            User user = new User();
+            user.setEmail("utente" + i + "@example.com");
+            user.setRole(Role.USER);
+            user.getGroups().add(group);
+            entityManager.persist(user);
+            event.getInvitedUsers().add(user);
+            requester = requester == null ? user : requester;
+        }
+        entityManager.persist(event);
+        entityManager.flush();
+        entityManager.clear();
+
+        CreateFerieRequest request = new CreateFerieRequest();
+        request.setTitle("Ferie estive");
+        request.setStartDate(LocalDate.now().plusDays(12));
+        request.setEndDate(LocalDate.now().plusDays(15));
+        request.setEventId(event.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        FerieCreatedDTO created = ferieController.createFerie(request, requester).getBody();
+
+        assertThat(created.getEventId()).isEqualTo(event.getId());
+        assertThat(created.getEventTitle()).isEqualTo("Chiusura estiva");
+        assertThat(created.getCreatedById()).isEqualTo(requester.getId());
+        assertThat(created.getStatus()).isEqualTo(Status.APPROVED);
+        // evento richiedibile, inserimento della richiesta, titolo dell'evento
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+}
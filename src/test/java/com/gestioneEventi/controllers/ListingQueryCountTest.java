@@ -0,0 +1,129 @@
+package com.gestioneEventi.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.gestioneEventi.dto.UserDTO;
+import com.gestioneEventi.dto.event.EventDTO;
+import com.gestioneEventi.models.Event;
+import com.gestioneEventi.models.EventType;
+import com.gestioneEventi.models.Role;
+import com.gestioneEventi.models.User;
+import com.gestioneEventi.models.UserGroup;
+import com.gestioneEventi.services.ActivityVoteCounter;
+import com.gestioneEventi.services.EventService;
+import com.gestioneEventi.services.PartecipationService;
+import com.gestioneEventi.services.UserService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checks that {@code GET /api/events} and {@code GET /api/user} issue the same number of statements
+ * whatever the number of events, invitees and groups, now that {@link User#getGroups()} is lazy.
+ * The test transaction stands in for open-session-in-view, so DTO mapping may touch lazy associations.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({ EventController.class, EventService.class, UserController.class, UserService.class })
+class ListingQueryCountTest {
+
+    @Autowired
+    private EventController eventController;
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private PartecipationService partecipationService;
+
+    @MockitoBean
+    private ActivityVoteCounter activityVoteCounter;
+
+    @ParameterizedTest
+    @ValueSource(ints = { 5, 60 })
+    void allEventsTakeOneQueryPlusOneGroupBatch(int users) {
+        seed(users, 10);
+        Statistics statistics = clearedStatistics();
+
+        List<?> events = eventController.getAllEvents("full").getBody();
+
+        assertThat(events).hasSize(10);
+        ((EventDTO) events.get(0)).getInvitedUsers().forEach(user -> assertThat(user.getGroup()).hasSize(2));
+        // eventi con creatore e invitati in una query, gruppi degli invitati in un batch @BatchSize
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 5, 60 })
+    void allUsersTakeOneQuery(int users) {
+        seed(users, 1);
+        Statistics statistics = clearedStatistics();
+
+        List<UserDTO> listed = userController.getAllUsers().getBody();
+
+        assertThat(listed).hasSize(users).allSatisfy(user -> assertThat(user.getGroup()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private void seed(int users, int events) {
+        UserGroup dev = group("Sviluppo");
+        UserGroup all = group("Tutti");
+        List<User> invitees = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            User user = new User();
+            user.setEmail("utente" + i + "@example.com");
+            user.setName("Utente " + i);
+            user.setRole(i == 0 ? Role.EDITOR : Role.USER);
+            user.getGroups().add(dev);
+            user.getGroups().add(all);
+            entityManager.persist(user);
+            invitees.add(user);
+        }
+        for (int i = 0; i < events; i++) {
+            Event event = new Event();
+            event.setTitle("Evento " + i);
+            event.setStartDate(LocalDate.of(2025, 6, 1).plusDays(i));
+            event.setEndDate(LocalDate.of(2025, 6, 2).plusDays(i));
+            event.setEventType(EventType.GENERICO);
+            event.setCreatedBy(invitees.get(0));
+            event.getInvitedUsers().addAll(invitees);
+            entityManager.persist(event);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private UserGroup group(String name) {
+        UserGroup group = new UserGroup();
+        group.setName(name);
+        return entityManager.persist(group);
+    }
+
+    private Statistics clearedStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,138 @@
+package com.gestioneEventi.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.gestioneEventi.models.Event;
+import com.gestioneEventi.models.EventType;
+import com.gestioneEventi.services.ActivityVoteCounter;
+import com.gestioneEventi.services.EventService;
+import com.gestioneEventi.services.PartecipationService;
+
+/**
+ * Checks that the two window queries together return exactly the events overlapping the window,
+ * in (startDate, id) order, and that {@link EventService#getEventsInWindow} moves its keyset cursor
+ * across both of them.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import(EventService.class)
+class EventRepositoryWindowTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 6, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 6, 30);
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EventService eventService;
+
+    @MockitoBean
+    private PartecipationService partecipationService;
+
+    @MockitoBean
+    private ActivityVoteCounter activityVoteCounter;
+
+    private Event endedBefore;
+    private Event ongoing;
+    private Event endingOnFrom;
+    private Event startingOnFrom;
+    private Event insideWindow;
+    private Event startingOnTo;
+    private Event after;
+
+    @BeforeEach
+    void setUp() {
+        endedBefore = persist("Passato", LocalDate.of(2025, 5, 1), LocalDate.of(2025, 5, 31), EventType.GENERICO);
+        ongoing = persist("In corso", LocalDate.of(2025, 5, 20), LocalDate.of(2025, 6, 10), EventType.GENERICO);
+        endingOnFrom = persist("Termina il primo giorno", LocalDate.of(2025, 5, 30), FROM, EventType.FERIE);
+        startingOnFrom = persist("Inizia il primo giorno", FROM, LocalDate.of(2025, 6, 2), EventType.GENERICO);
+        insideWindow = persist("Interno", LocalDate.of(2025, 6, 15), LocalDate.of(2025, 6, 16), EventType.FERIE);
+        startingOnTo = persist("Inizia l'ultimo giorno", TO, LocalDate.of(2025, 7, 5), EventType.GENERICO);
+        after = persist("Futuro", LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 2), EventType.GENERICO);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void ongoingQueryReturnsOnlyEventsRunningOnFirstDay() {
+        List<Long> ids = eventRepository.findIdsOngoingAt(FROM, null, null, null, PageRequest.of(0, 10));
+
+        assertThat(ids).containsExactly(ongoing.getId(), endingOnFrom.getId());
+    }
+
+    @Test
+    void startingQueryIsBoundedOnBothSides() {
+        List<Long> ids = eventRepository.findIdsStartingInWindow(FROM, TO, null, null, null, PageRequest.of(0, 10));
+
+        assertThat(ids).containsExactly(startingOnFrom.getId(), insideWindow.getId(), startingOnTo.getId());
+        assertThat(ids).doesNotContain(endedBefore.getId(), after.getId());
+    }
+
+    @Test
+    void eventTypeFilterAppliesToBothQueries() {
+        List<Long> ongoingIds = eventRepository.findIdsOngoingAt(FROM, EventType.FERIE, null, null, PageRequest.of(0, 10));
+        List<Long> startingIds = eventRepository.findIdsStartingInWindow(FROM, TO, EventType.FERIE, null, null,
+                PageRequest.of(0, 10));
+
+        assertThat(ongoingIds).containsExactly(endingOnFrom.getId());
+        assertThat(startingIds).containsExactly(insideWindow.getId());
+    }
+
+    @Test
+    void pagingWithCursorVisitsEveryOverlappingEventOnce() {
+        List<Long> visited = new ArrayList<>();
+        LocalDate afterStartDate = null;
+        Long afterId = null;
+
+        // pagine da due elementi: la prima pagina resta negli eventi in corso, la seconda attraversa i due insiemi
+        Slice<Event> page;
+        do {
+            page = eventService.getEventsInWindow(FROM, TO, null, afterStartDate, afterId, 2);
+            page.forEach(event -> visited.add(event.getId()));
+            Event last = page.getContent().get(page.getNumberOfElements() - 1);
+            afterStartDate = last.getStartDate();
+            afterId = last.getId();
+        } while (page.hasNext());
+
+        assertThat(visited).containsExactly(ongoing.getId(), endingOnFrom.getId(), startingOnFrom.getId(),
+                insideWindow.getId(), startingOnTo.getId());
+    }
+
+    @Test
+    void serviceAppliesTheEventTypeFilterAcrossBothSets() {
+        Slice<Event> page = eventService.getEventsInWindow(FROM, TO, EventType.FERIE, null, null, 10);
+
+        assertThat(page.getContent()).extracting(Event::getId).containsExactly(endingOnFrom.getId(), insideWindow.getId());
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    private Event persist(String title, LocalDate start, LocalDate end, EventType type) {
+        Event event = new Event();
+        event.setTitle(title);
+        event.setStartDate(start);
+        event.setEndDate(end);
+        event.setEventType(type);
+        return entityManager.persist(event);
+    }
+}
@@ -0,0 +1,114 @@
+package com.gestioneEventi.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.gestioneEventi.dto.ferie.AbsenceDTO;
+import com.gestioneEventi.models.Ferie;
+import com.gestioneEventi.models.Role;
+import com.gestioneEventi.models.Status;
+import com.gestioneEventi.models.User;
+import com.gestioneEventi.models.UserGroup;
+
+/**
+ * Checks that the "ongoing at from" and "starting in range" queries together return exactly the
+ * approved vacations overlapping the range, in (startDate, id) order.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class FerieRepositoryOverlapTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 8, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 8, 31);
+
+    @Autowired
+    private FerieRepository ferieRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private UserGroup group;
+    private Ferie ongoing;
+    private Ferie endingOnFrom;
+    private Ferie startingOnFrom;
+    private Ferie coveringRange;
+    private Ferie outsiderInRange;
+    private Ferie startingOnTo;
+
+    @BeforeEach
+    void setUp() {
+        group = new UserGroup();
+        group.setName("Amministrazione");
+        entityManager.persist(group);
+
+        User member = persistUser("mario.rossi@example.com", group);
+        User outsider = persistUser("luigi.verdi@example.com", null);
+
+        persistFerie(member, LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 31), Status.APPROVED);
+        ongoing = persistFerie(member, LocalDate.of(2025, 7, 25), LocalDate.of(2025, 8, 3), Status.APPROVED);
+        endingOnFrom = persistFerie(member, LocalDate.of(2025, 7, 30), FROM, Status.APPROVED);
+        coveringRange = persistFerie(member, LocalDate.of(2025, 7, 31), LocalDate.of(2025, 9, 10), Status.APPROVED);
+        startingOnFrom = persistFerie(member, FROM, LocalDate.of(2025, 8, 2), Status.APPROVED);
+        persistFerie(member, LocalDate.of(2025, 8, 10), LocalDate.of(2025, 8, 12), Status.REJECTED);
+        persistFerie(member, LocalDate.of(2025, 8, 14), LocalDate.of(2025, 8, 15), null);
+        outsiderInRange = persistFerie(outsider, LocalDate.of(2025, 8, 20), LocalDate.of(2025, 8, 22), Status.APPROVED);
+        startingOnTo = persistFerie(member, TO, LocalDate.of(2025, 9, 2), Status.APPROVED);
+        persistFerie(member, LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 5), Status.APPROVED);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void approvedOverlappingVacationsAreReturnedInOrder() {
+        List<AbsenceDTO> absences = new ArrayList<>(ferieRepository.findApprovedOngoingAt(FROM));
+        absences.addAll(ferieRepository.findApprovedStartingIn(FROM, TO));
+
+        assertThat(absences).extracting(AbsenceDTO::getFerieId).containsExactly(
+                ongoing.getId(), endingOnFrom.getId(), coveringRange.getId(),
+                startingOnFrom.getId(), outsiderInRange.getId(), startingOnTo.getId());
+    }
+
+    @Test
+    void groupVariantKeepsOnlyMembers() {
+        List<AbsenceDTO> absences = new ArrayList<>(ferieRepository.findApprovedOngoingAtInGroup(FROM, group.getId()));
+        absences.addAll(ferieRepository.findApprovedStartingInInGroup(FROM, TO, group.getId()));
+
+        assertThat(absences).extracting(AbsenceDTO::getFerieId).containsExactly(
+                ongoing.getId(), endingOnFrom.getId(), coveringRange.getId(),
+                startingOnFrom.getId(), startingOnTo.getId());
+    }
+
+    private User persistUser(String email, UserGroup userGroup) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName(email);
+        user.setRole(Role.USER);
+        if (userGroup != null) {
+            user.getGroups().add(userGroup);
+        }
+        return entityManager.persist(user);
+    }
+
+    private Ferie persistFerie(User user, LocalDate start, LocalDate end, Status status) {
+        Ferie ferie = new Ferie();
+        ferie.setTitle("Ferie");
+        ferie.setStartDate(start);
+        ferie.setEndDate(end);
+        ferie.setStatus(status);
+        ferie.setCreatedBy(user);
+        return entityManager.persist(ferie);
+    }
+}
@@ -0,0 +1,106 @@
+package com.gestioneEventi.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.gestioneEventi.models.Event;
+import com.gestioneEventi.models.EventType;
+import com.gestioneEventi.models.Partecipation;
+import com.gestioneEventi.models.PartecipationStatus;
+import com.gestioneEventi.models.Role;
+import com.gestioneEventi.models.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Measures the insert of 1,000 invitations for one event, as done by
+ * PartecipationService.createPartecipation. With pooled sequences and JDBC batching the number of
+ * prepared statements is one per batch plus one per sequence block, instead of one per row.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class PartecipationBatchInsertTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PartecipationBatchInsertTest.class);
+
+    private static final int INVITEES = 1000;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private PartecipationRepository partecipationRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Event event;
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        event = new Event();
+        event.setTitle("Convention annuale");
+        event.setStartDate(LocalDate.of(2025, 9, 1));
+        event.setEndDate(LocalDate.of(2025, 9, 3));
+        event.setEventType(EventType.GENERICO);
+        entityManager.persist(event);
+
+        users = new ArrayList<>();
+        for (int i = 0; i < INVITEES; i++) {
+            User user = new User();
+            user.setEmail("invitato" + i + "@example.com");
+            user.setName("Invitato " + i);
+            user.setRole(Role.USER);
+            users.add(entityManager.persist(user));
+        }
+        entityManager.flush();
+        statistics.clear();
+    }
+
+    @Test
+    void thousandInviteesAreInsertedInBatches() {
+        List<Partecipation> toCreate = users.stream()
+                .map(user -> {
+                    Partecipation p = new Partecipation();
+                    p.setStatus(PartecipationStatus.PENDING);
+                    p.setEvent(event);
+                    p.setUser(user);
+                    return p;
+                })
+                .toList();
+
+        long start = System.nanoTime();
+        partecipationRepository.saveAll(toCreate);
+        entityManager.flush();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        long statements = statistics.getPrepareStatementCount();
+        log.info("Inserite {} partecipazioni in {} ms con {} statement preparati",
+                INVITEES, elapsedMillis, statements);
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(INVITEES);
+        // 20 batch di insert + circa 20 chiamate alla sequence, contro più di 1.000 senza batching
+        assertThat(statements).isLessThanOrEqualTo(3L * (INVITEES / BATCH_SIZE));
+    }
+}
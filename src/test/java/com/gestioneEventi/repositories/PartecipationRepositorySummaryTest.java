@@ -0,0 +1,133 @@
+package com.gestioneEventi.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.gestioneEventi.dto.partecipation.PartecipationSummaryDTO;
+import com.gestioneEventi.models.Event;
+import com.gestioneEventi.models.EventType;
+import com.gestioneEventi.models.Partecipation;
+import com.gestioneEventi.models.PartecipationStatus;
+import com.gestioneEventi.models.Role;
+import com.gestioneEventi.models.User;
+
+/**
+ * Checks the order and paging of the participation summary queries, which follow the
+ * (user_id, event_id) and (event_id, status) indexes.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class PartecipationRepositorySummaryTest {
+
+    @Autowired
+    private PartecipationRepository partecipationRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User mario;
+    private User luigi;
+    private Event summer;
+    private Event winter;
+
+    @BeforeEach
+    void setUp() {
+        mario = user("mario.rossi@example.com");
+        luigi = user("luigi.verdi@example.com");
+        User anna = user("anna.bianchi@example.com");
+        // l'evento creato per secondo ha l'id più alto
+        summer = event("Estate");
+        winter = event("Inverno");
+
+        partecipate(winter, mario, PartecipationStatus.ACCEPTED);
+        partecipate(summer, mario, PartecipationStatus.PENDING);
+        partecipate(summer, luigi, PartecipationStatus.REJECTED);
+        partecipate(summer, anna, PartecipationStatus.PENDING);
+        partecipate(winter, luigi, PartecipationStatus.PENDING);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void userSummariesAreOrderedByEventAndPaged() {
+        Slice<PartecipationSummaryDTO> first = partecipationRepository.findSummariesByUserId(mario.getId(), PageRequest.of(0, 1));
+        Slice<PartecipationSummaryDTO> second = partecipationRepository.findSummariesByUserId(mario.getId(), PageRequest.of(1, 1));
+
+        assertThat(first.getContent()).extracting(PartecipationSummaryDTO::getEventTitle).containsExactly("Estate");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).extracting(PartecipationSummaryDTO::getEventTitle).containsExactly("Inverno");
+        assertThat(second.hasNext()).isFalse();
+        assertThat(second.getContent().get(0).getUserEmail()).isEqualTo("mario.rossi@example.com");
+    }
+
+    @Test
+    void eventSummariesAreOrderedByStatusThenId() {
+        List<PartecipationSummaryDTO> rows = collect(page ->
+                partecipationRepository.findSummariesByEventId(summer.getId(), PageRequest.of(page, 2)));
+
+        assertThat(rows).extracting(PartecipationSummaryDTO::getStatus).containsExactly(
+                PartecipationStatus.PENDING, PartecipationStatus.PENDING, PartecipationStatus.REJECTED);
+        assertThat(rows.get(0).getId()).isLessThan(rows.get(1).getId());
+        assertThat(rows).extracting(PartecipationSummaryDTO::getEventId).containsOnly(summer.getId());
+    }
+
+    @Test
+    void statusFilteredSummariesOnlyReturnThatStatus() {
+        List<PartecipationSummaryDTO> rows = collect(page -> partecipationRepository.findSummariesByEventIdAndStatus(
+                summer.getId(), PartecipationStatus.PENDING, PageRequest.of(page, 1)));
+
+        assertThat(rows).extracting(PartecipationSummaryDTO::getUserEmail)
+                .containsExactly("mario.rossi@example.com", "anna.bianchi@example.com");
+    }
+
+    private static List<PartecipationSummaryDTO> collect(IntFunction<Slice<PartecipationSummaryDTO>> pages) {
+        List<PartecipationSummaryDTO> rows = new ArrayList<>();
+        Slice<PartecipationSummaryDTO> slice;
+        int page = 0;
+        do {
+            slice = pages.apply(page++);
+            rows.addAll(slice.getContent());
+        } while (slice.hasNext());
+        return rows;
+    }
+
+    private User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName(email.substring(0, email.indexOf('@')));
+        user.setRole(Role.USER);
+        return entityManager.persist(user);
+    }
+
+    private Event event(String title) {
+        Event event = new Event();
+        event.setTitle(title);
+        event.setStartDate(LocalDate.of(2025, 6, 1));
+        event.setEndDate(LocalDate.of(2025, 6, 2));
+        event.setEventType(EventType.GENERICO);
+        return entityManager.persist(event);
+    }
+
+    private void partecipate(Event event, User user, PartecipationStatus status) {
+        Partecipation partecipation = new Partecipation();
+        partecipation.setEvent(event);
+        partecipation.setUser(user);
+        partecipation.setStatus(status);
+        entityManager.persist(partecipation);
+    }
+}
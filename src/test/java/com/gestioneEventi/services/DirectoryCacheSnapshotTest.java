@@ -0,0 +1,130 @@
+package com.gestioneEventi.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import javax.crypto.SecretKey;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Round trip of the directory cache snapshot on local disk, alone and through {@link EmployeeDirectoryClient}.
+ */
+class DirectoryCacheSnapshotTest {
+
+    private static final String SECRET = "chiave-di-test";
+
+    @TempDir
+    Path dir;
+
+    private Path snapshot;
+    private StubDirectoryServer directory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        snapshot = dir.resolve("directory-cache.bin");
+        directory = new StubDirectoryServer().withEmployees("mario.rossi@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        directory.close();
+    }
+
+    @Test
+    void readReturnsWrittenEntriesAndSkipsExpiredOnes() throws IOException {
+        SecretKey key = DirectoryCacheSnapshot.key(SECRET);
+        long now = System.currentTimeMillis();
+        DirectoryCacheSnapshot.EmailHash mario = DirectoryCacheSnapshot.hash(key, "mario.rossi@example.com");
+        DirectoryCacheSnapshot.EmailHash luigi = DirectoryCacheSnapshot.hash(key, "luigi.verdi@example.com");
+        DirectoryCacheSnapshot.EmailHash anna = DirectoryCacheSnapshot.hash(key, "anna.bianchi@example.com");
+
+        DirectoryCacheSnapshot.write(snapshot, Map.of(
+                mario, new DirectoryCacheSnapshot.Entry(true, now + 60_000),
+                luigi, new DirectoryCacheSnapshot.Entry(false, now + 30_000),
+                anna, new DirectoryCacheSnapshot.Entry(true, now - 1)));
+
+        assertThat(DirectoryCacheSnapshot.read(snapshot, now)).containsOnly(
+                Map.entry(mario, new DirectoryCacheSnapshot.Entry(true, now + 60_000)),
+                Map.entry(luigi, new DirectoryCacheSnapshot.Entry(false, now + 30_000)));
+    }
+
+    @Test
+    void hashIsKeyedAndCaseInsensitive() {
+        SecretKey key = DirectoryCacheSnapshot.key(SECRET);
+
+        assertThat(DirectoryCacheSnapshot.hash(key, "Mario.Rossi@example.com"))
+                .isEqualTo(DirectoryCacheSnapshot.hash(key, "mario.rossi@example.com"))
+                .isNotEqualTo(DirectoryCacheSnapshot.hash(DirectoryCacheSnapshot.key("altra-chiave"), "mario.rossi@example.com"));
+    }
+
+    @Test
+    void snapshotOfAnOlderVersionIsIgnored() throws IOException {
+        try (OutputStream file = Files.newOutputStream(snapshot); DataOutputStream out = new DataOutputStream(file)) {
+            out.writeInt(0x45444353);
+            out.writeByte(1);
+            out.writeInt(0);
+        }
+
+        assertThat(DirectoryCacheSnapshot.read(snapshot, System.currentTimeMillis())).isEmpty();
+    }
+
+    @Test
+    void restartedClientAnswersFromTheSnapshot() {
+        EmployeeDirectoryClient before = directory.newClient(snapshot, SECRET);
+        assertThat(before.isEmployee("mario.rossi@example.com")).isTrue();
+        assertThat(before.isEmployee("luigi.verdi@example.com")).isFalse();
+        before.saveSnapshot();
+
+        // directory irraggiungibile dopo il riavvio: i verdetti devono arrivare dallo snapshot
+        directory.failingWith(503);
+        directory.withEmployees("luigi.verdi@example.com");
+        EmployeeDirectoryClient after = directory.newClient(snapshot, SECRET);
+        after.loadSnapshot();
+
+        assertThat(after.isEmployee("Mario.Rossi@example.com")).isTrue();
+        assertThat(after.isEmployee("luigi.verdi@example.com")).isFalse();
+        assertThat(directory.singleRequests()).isEqualTo(2);
+    }
+
+    @Test
+    void snapshotWrittenWithAnotherKeyIsNotUsed() {
+        EmployeeDirectoryClient before = directory.newClient(snapshot, SECRET);
+        assertThat(before.isEmployee("mario.rossi@example.com")).isTrue();
+        before.saveSnapshot();
+
+        EmployeeDirectoryClient after = directory.newClient(snapshot, "altra-chiave");
+        after.loadSnapshot();
+
+        assertThat(after.isEmployee("mario.rossi@example.com")).isTrue();
+        assertThat(directory.singleRequests()).isEqualTo(2);
+    }
+
+    @Test
+    void warmedVerdictKeepsOnlyItsRemainingLifetime() throws Exception {
+        EmployeeDirectoryClient client = directory.newClient(snapshot, SECRET);
+        SecretKey key = DirectoryCacheSnapshot.key(SECRET);
+        long expiresAt = System.currentTimeMillis() + 1_000;
+        DirectoryCacheSnapshot.write(snapshot, Map.of(
+                DirectoryCacheSnapshot.hash(key, "luigi.verdi@example.com"),
+                new DirectoryCacheSnapshot.Entry(true, expiresAt)));
+        client.loadSnapshot();
+
+        assertThat(client.isEmployee("luigi.verdi@example.com")).isTrue();
+        assertThat(directory.singleRequests()).isZero();
+
+        // scaduto il verdetto dello snapshot, la directory viene interrogata di nuovo
+        Thread.sleep(Math.max(0, expiresAt - System.currentTimeMillis()) + 200);
+        assertThat(client.isEmployee("luigi.verdi@example.com")).isFalse();
+        assertThat(directory.singleRequests()).isEqualTo(1);
+    }
+}
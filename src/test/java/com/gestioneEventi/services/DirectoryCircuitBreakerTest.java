@@ -0,0 +1,143 @@
+package com.gestioneEventi.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.gestioneEventi.services.DirectoryCircuitBreaker.State;
+
+/**
+ * State machine tests for {@link DirectoryCircuitBreaker}, driven by a manual clock.
+ */
+class DirectoryCircuitBreakerTest {
+
+    private static final Duration SLOW_CALL = Duration.ofSeconds(2);
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+    private static final long FAST = Duration.ofMillis(50).toNanos();
+
+    private final AtomicLong clock = new AtomicLong();
+    private DirectoryCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        // finestra di 4 chiamate, almeno 4 registrate, apertura al 50% di chiamate cattive
+        breaker = new DirectoryCircuitBreaker(4, 4, 50, SLOW_CALL, OPEN_DURATION, clock::get);
+    }
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        call(false);
+        call(false);
+        call(false);
+
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThresholdAndRejectsUntilOpenDurationElapses() {
+        call(true);
+        call(true);
+        call(false);
+        call(false);
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+
+        advance(OPEN_DURATION.minusMillis(1));
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void slowSuccessfulCallsCountAsBad() {
+        breaker.tryAcquirePermission();
+        breaker.onSuccess(SLOW_CALL.toNanos());
+        breaker.tryAcquirePermission();
+        breaker.onSuccess(SLOW_CALL.plusMillis(1).toNanos());
+        call(false);
+        call(false);
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void oldCallsLeaveTheSlidingWindow() {
+        call(false);
+        call(false);
+        call(false);
+        call(true);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+
+        // la prima chiamata riuscita esce dalla finestra: 2 cattive su 4 invece di 2 su 5
+        call(true);
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void halfOpenAllowsOneTrialAndClosesOnSuccess() {
+        open();
+        advance(OPEN_DURATION);
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+
+        breaker.onSuccess(FAST);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void failedTrialReopensForAnotherOpenDuration() {
+        open();
+        advance(OPEN_DURATION);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+
+        breaker.onError();
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        advance(OPEN_DURATION.minusMillis(1));
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        advance(Duration.ofMillis(1));
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void releasedTrialPermissionCanBeTakenAgain() {
+        open();
+        advance(OPEN_DURATION);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+
+        // chiamata di prova annullata senza esito
+        breaker.releasePermission();
+
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    private void call(boolean fails) {
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        if (fails) {
+            breaker.onError();
+        } else {
+            breaker.onSuccess(FAST);
+        }
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}
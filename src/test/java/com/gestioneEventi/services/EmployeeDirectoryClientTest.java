@@ -0,0 +1,138 @@
+package com.gestioneEventi.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.gestioneEventi.services.EmployeeDirectoryClient.Verdict;
+
+/**
+ * Tests {@link EmployeeDirectoryClient} against an in-process directory.
+ */
+class EmployeeDirectoryClientTest {
+
+    private StubDirectoryServer directory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        directory = new StubDirectoryServer().withEmployees("mario.rossi@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        directory.close();
+    }
+
+    @Test
+    void batchLookupIsChunkedAndCached() {
+        EmployeeDirectoryClient client = directory.newClient(false);
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            emails.add("utente" + i + "@example.com");
+        }
+        emails.add("MARIO.ROSSI@example.com");
+
+        Map<String, Verdict> verdicts = client.areEmployees(emails);
+
+        assertThat(directory.batchSizes()).containsExactlyInAnyOrder(100, 100, 51);
+        assertThat(directory.singleRequests()).isZero();
+        assertThat(verdicts).hasSize(251)
+                .containsEntry("mario.rossi@example.com", Verdict.EMPLOYEE)
+                .containsEntry("utente0@example.com", Verdict.NOT_EMPLOYEE);
+
+        // seconda richiesta: tutti i verdetti arrivano dalla cache
+        client.areEmployees(emails);
+        assertThat(directory.totalRequests()).isEqualTo(3);
+    }
+
+    @Test
+    void directoryWithoutBatchEndpointFallsBackToSingleLookups() {
+        directory.withoutBatch();
+        EmployeeDirectoryClient client = directory.newClient(false);
+
+        Map<String, Verdict> verdicts = client.areEmployees(
+                List.of("mario.rossi@example.com", "luigi.verdi@example.com", "anna.bianchi@example.com"));
+
+        assertThat(verdicts).containsExactly(
+                Map.entry("mario.rossi@example.com", Verdict.EMPLOYEE),
+                Map.entry("luigi.verdi@example.com", Verdict.NOT_EMPLOYEE),
+                Map.entry("anna.bianchi@example.com", Verdict.NOT_EMPLOYEE));
+        assertThat(directory.singleRequests()).isEqualTo(3);
+
+        // il batch non viene più tentato: una nuova email va direttamente alla ricerca singola
+        client.areEmployees(List.of("paolo.neri@example.com"));
+        assertThat(directory.singleRequests()).isEqualTo(4);
+    }
+
+    @Test
+    void fallbackKeepsCompletedVerdictsAndReportsTheRestAsUnavailable() {
+        EmployeeDirectoryClient client = directory.newClient(false);
+        client.areEmployees(List.of("mario.rossi@example.com", "anna.bianchi@example.com"));
+
+        directory.failingWith(503);
+        Map<String, Verdict> verdicts = client.areEmployees(
+                List.of("Mario.Rossi@example.com", "anna.bianchi@example.com", "luigi.verdi@example.com"));
+
+        // i verdetti in cache restano validi, l'email mai verificata non è un rifiuto del directory
+        assertThat(verdicts).containsExactly(
+                Map.entry("mario.rossi@example.com", Verdict.EMPLOYEE),
+                Map.entry("anna.bianchi@example.com", Verdict.NOT_EMPLOYEE),
+                Map.entry("luigi.verdi@example.com", Verdict.UNAVAILABLE));
+    }
+
+    @Test
+    void fallbackAllowAdmitsUncheckedEmails() {
+        directory.failingWith(503);
+        EmployeeDirectoryClient client = directory.newClient(true);
+
+        assertThat(client.areEmployees(List.of("luigi.verdi@example.com")))
+                .containsExactly(Map.entry("luigi.verdi@example.com", Verdict.EMPLOYEE));
+    }
+
+    @Test
+    void bulkheadRejectsExtraCallsAndReleasesThePermitOnCompletion() throws Exception {
+        directory.withDelayMillis(500);
+        EmployeeDirectoryClient client = directory.newClient(false, 1);
+
+        CompletableFuture<Boolean> inFlight = client.isEmployeeAsync("luigi.verdi@example.com");
+        awaitSingleRequests(1);
+
+        // l'unico permesso è occupato: la seconda ricerca è rifiutata subito con il verdetto di fallback
+        long start = System.nanoTime();
+        assertThat(client.isEmployee("mario.rossi@example.com")).isFalse();
+        assertThat(System.nanoTime() - start).isLessThan(250_000_000L);
+        assertThat(directory.singleRequests()).isEqualTo(1);
+
+        assertThat(inFlight.join()).isFalse();
+        // permesso restituito: il verdetto rifiutato non era in cache e ora arriva dalla directory
+        assertThat(client.isEmployee("mario.rossi@example.com")).isTrue();
+        assertThat(directory.singleRequests()).isEqualTo(2);
+    }
+
+    @Test
+    void bulkheadPermitIsReleasedWhenTheCallFails() {
+        directory.failingWith(503);
+        EmployeeDirectoryClient client = directory.newClient(false, 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(client.isEmployee("utente" + i + "@example.com")).isFalse();
+        }
+
+        assertThat(directory.singleRequests()).isEqualTo(3);
+    }
+
+    private void awaitSingleRequests(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (directory.singleRequests() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(directory.singleRequests()).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,98 @@
+package com.gestioneEventi.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.gestioneEventi.dto.BulkUpdateResultDTO;
+import com.gestioneEventi.dto.BulkUpdateResultDTO.Outcome;
+import com.gestioneEventi.dto.ferie.BulkFerieStatusRequest;
+import com.gestioneEventi.exceptions.BusinessValidationException;
+import com.gestioneEventi.models.Status;
+import com.gestioneEventi.repositories.FerieRepository;
+import com.gestioneEventi.repositories.FerieRepository.FerieStatus;
+
+/**
+ * Unit tests for the conditional UPDATEs behind {@link FerieService#updateFerieStatusBulk}.
+ */
+@ExtendWith(MockitoExtension.class)
+class FerieServiceBulkStatusTest {
+
+    @Mock
+    private FerieRepository ferieRepository;
+
+    @InjectMocks
+    private FerieService ferieService;
+
+    @Test
+    void eachUpdateIsConditionedOnTheStatusThatWasRead() {
+        when(ferieRepository.findStatusesByIdIn(List.of(1L, 2L, 3L, 4L))).thenReturn(List.of(
+                status(1L, null), status(2L, Status.REJECTED), status(3L, Status.APPROVED)));
+        when(ferieRepository.updatePendingStatusByIdIn(List.of(1L), Status.APPROVED)).thenReturn(1);
+        when(ferieRepository.updateStatusByIdInAndStatus(List.of(2L), Status.REJECTED, Status.APPROVED)).thenReturn(1);
+
+        BulkUpdateResultDTO result = ferieService.updateFerieStatusBulk(request(Status.APPROVED, 1L, 2L, 3L, 4L));
+
+        assertThat(result.getOutcomes()).containsExactly(
+                entry(1L, Outcome.UPDATED), entry(2L, Outcome.UPDATED),
+                entry(3L, Outcome.UNCHANGED), entry(4L, Outcome.NOT_FOUND));
+        assertThat(result.getUpdated()).isEqualTo(2);
+        assertThat(result.getSkipped()).isZero();
+    }
+
+    @Test
+    void rowsChangedConcurrentlyAreSkippedNotOverwritten() {
+        when(ferieRepository.findStatusesByIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(status(1L, null), status(2L, null)))
+                // riletta dopo l'UPDATE: la 2 è stata rifiutata da un'altra richiesta nel frattempo
+                .thenReturn(List.of(status(1L, Status.APPROVED), status(2L, Status.REJECTED)));
+        when(ferieRepository.updatePendingStatusByIdIn(List.of(1L, 2L), Status.APPROVED)).thenReturn(1);
+
+        BulkUpdateResultDTO result = ferieService.updateFerieStatusBulk(request(Status.APPROVED, 1L, 2L));
+
+        assertThat(result.getOutcomes()).containsExactly(entry(1L, Outcome.UPDATED), entry(2L, Outcome.SKIPPED));
+        assertThat(result.getSkipped()).isEqualTo(1);
+    }
+
+    @Test
+    void missingStatusIsRejectedBeforeAnyQuery() {
+        assertThatThrownBy(() -> ferieService.updateFerieStatusBulk(request(null, 1L)))
+                .isInstanceOf(BusinessValidationException.class);
+        verifyNoInteractions(ferieRepository);
+    }
+
+    private static BulkFerieStatusRequest request(Status status, Long... ids) {
+        BulkFerieStatusRequest request = new BulkFerieStatusRequest();
+        request.setStatus(status);
+        request.setIds(List.of(ids));
+        return request;
+    }
+
+    private static Map.Entry<Long, Outcome> entry(Long id, Outcome outcome) {
+        return Map.entry(id, outcome);
+    }
+
+    private static FerieStatus status(Long id, Status status) {
+        return new FerieStatus() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Status getStatus() {
+                return status;
+            }
+        };
+    }
+}
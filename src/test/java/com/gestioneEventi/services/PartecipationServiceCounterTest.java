@@ -0,0 +1,151 @@
+package com.gestioneEventi.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.gestioneEventi.dto.BulkUpdateResultDTO;
+import com.gestioneEventi.dto.BulkUpdateResultDTO.Outcome;
+import com.gestioneEventi.dto.partecipation.BulkPartecipationStatusRequest;
+import com.gestioneEventi.dto.partecipation.UpdatePartecipation;
+import com.gestioneEventi.models.Event;
+import com.gestioneEventi.models.Partecipation;
+import com.gestioneEventi.models.PartecipationStatus;
+import com.gestioneEventi.models.Role;
+import com.gestioneEventi.models.User;
+import com.gestioneEventi.repositories.PartecipationCounterRepository;
+import com.gestioneEventi.repositories.PartecipationRepository;
+import com.gestioneEventi.repositories.PartecipationRepository.PartecipationOwnership;
+
+/**
+ * Unit tests for the RSVP counter deltas of {@link PartecipationService}: counters must move by the
+ * rows actually changed, never by what an earlier read assumed.
+ */
+@ExtendWith(MockitoExtension.class)
+class PartecipationServiceCounterTest {
+
+    private static final Long EVENT_ID = 7L;
+
+    @Mock
+    private PartecipationRepository partecipationRepository;
+
+    @Mock
+    private PartecipationCounterRepository partecipationCounterRepository;
+
+    @InjectMocks
+    private PartecipationService partecipationService;
+
+    @Test
+    void bulkUpdateMovesCountersByAffectedRowsAndReportsSkipped() {
+        User editor = user(1L, Role.EDITOR);
+        when(partecipationRepository.findOwnershipByIdIn(List.of(10L, 11L)))
+                .thenReturn(List.of(row(10L, PartecipationStatus.PENDING), row(11L, PartecipationStatus.PENDING)))
+                // riletta dopo l'UPDATE: la 11 è stata rifiutata da un'altra richiesta nel frattempo
+                .thenReturn(List.of(row(10L, PartecipationStatus.ACCEPTED), row(11L, PartecipationStatus.REJECTED)));
+        when(partecipationRepository.updateStatusByIdInAndStatus(List.of(10L, 11L), PartecipationStatus.PENDING,
+                PartecipationStatus.ACCEPTED, 1L, true)).thenReturn(1);
+
+        BulkUpdateResultDTO result = partecipationService.updatePartecipationsBulk(
+                request(PartecipationStatus.ACCEPTED, 10L, 11L), editor);
+
+        verify(partecipationCounterRepository).adjust(EVENT_ID, PartecipationStatus.PENDING.ordinal(), -1);
+        verify(partecipationCounterRepository).adjust(EVENT_ID, PartecipationStatus.ACCEPTED.ordinal(), 1);
+        assertThat(result.getOutcomes()).containsExactly(
+                Map.entry(10L, Outcome.UPDATED), Map.entry(11L, Outcome.SKIPPED));
+    }
+
+    @Test
+    void bulkUpdateGroupsByPreviousStatus() {
+        User editor = user(1L, Role.EDITOR);
+        when(partecipationRepository.findOwnershipByIdIn(List.of(10L, 11L, 12L))).thenReturn(List.of(
+                row(10L, PartecipationStatus.PENDING), row(11L, PartecipationStatus.REJECTED),
+                row(12L, PartecipationStatus.ACCEPTED)));
+        when(partecipationRepository.updateStatusByIdInAndStatus(List.of(10L), PartecipationStatus.PENDING,
+                PartecipationStatus.ACCEPTED, 1L, true)).thenReturn(1);
+        when(partecipationRepository.updateStatusByIdInAndStatus(List.of(11L), PartecipationStatus.REJECTED,
+                PartecipationStatus.ACCEPTED, 1L, true)).thenReturn(1);
+
+        BulkUpdateResultDTO result = partecipationService.updatePartecipationsBulk(
+                request(PartecipationStatus.ACCEPTED, 10L, 11L, 12L), editor);
+
+        verify(partecipationCounterRepository).adjust(EVENT_ID, PartecipationStatus.PENDING.ordinal(), -1);
+        verify(partecipationCounterRepository).adjust(EVENT_ID, PartecipationStatus.REJECTED.ordinal(), -1);
+        // un solo incremento del contatore di destinazione per evento, con la somma dei gruppi
+        verify(partecipationCounterRepository).adjust(EVENT_ID, PartecipationStatus.ACCEPTED.ordinal(), 2);
+        verifyNoMoreInteractions(partecipationCounterRepository);
+        assertThat(result.getUpdated()).isEqualTo(2);
+        assertThat(result.getUnchanged()).isEqualTo(1);
+    }
+
+    @Test
+    void singleUpdateReadsPreviousStatusUnderLock() {
+        User owner = user(3L, Role.USER);
+        Partecipation partecipation = new Partecipation();
+        partecipation.setId(10L);
+        partecipation.setStatus(PartecipationStatus.PENDING);
+        partecipation.setUser(owner);
+        Event event = new Event();
+        event.setId(EVENT_ID);
+        partecipation.setEvent(event);
+        when(partecipationRepository.findByIdForUpdate(10L)).thenReturn(Optional.of(partecipation));
+        when(partecipationRepository.save(partecipation)).thenReturn(partecipation);
+
+        UpdatePartecipation request = new UpdatePartecipation();
+        request.setStatus(PartecipationStatus.REJECTED);
+        partecipationService.updatePartecipation(request, 10L, owner);
+
+        verify(partecipationRepository, never()).findById(10L);
+        verify(partecipationCounterRepository).adjust(EVENT_ID, PartecipationStatus.PENDING.ordinal(), -1);
+        verify(partecipationCounterRepository).adjust(EVENT_ID, PartecipationStatus.REJECTED.ordinal(), 1);
+    }
+
+    private static BulkPartecipationStatusRequest request(PartecipationStatus status, Long... ids) {
+        BulkPartecipationStatusRequest request = new BulkPartecipationStatusRequest();
+        request.setStatus(status);
+        request.setIds(List.of(ids));
+        return request;
+    }
+
+    private static User user(Long id, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setRole(role);
+        return user;
+    }
+
+    private static PartecipationOwnership row(Long id, PartecipationStatus status) {
+        return new PartecipationOwnership() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public PartecipationStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getUserId() {
+                return 3L;
+            }
+
+            @Override
+            public Long getEventId() {
+                return EVENT_ID;
+            }
+        };
+    }
+}
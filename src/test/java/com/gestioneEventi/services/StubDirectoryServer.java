@@ -0,0 +1,182 @@
+package com.gestioneEventi.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * In-process employee directory for tests, built on the JDK {@link HttpServer}.
+ * Serves {@code GET /employees?email=} and, unless disabled, the batch {@code POST /employees},
+ * and records every request it receives.
+ */
+public class StubDirectoryServer implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Set<String> employees = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger singleRequests = new AtomicInteger();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    private volatile long delayMillis;
+    private volatile boolean batchSupported = true;
+    private volatile int failureStatus;
+
+    public StubDirectoryServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/employees", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public StubDirectoryServer withEmployees(String... emails) {
+        employees.addAll(List.of(emails));
+        return this;
+    }
+
+    /**
+     * Delays every response, to keep lookups in flight.
+     */
+    public StubDirectoryServer withDelayMillis(long delayMillis) {
+        this.delayMillis = delayMillis;
+        return this;
+    }
+
+    /**
+     * Makes the batch endpoint answer 404, as a directory without batch support would.
+     */
+    public StubDirectoryServer withoutBatch() {
+        this.batchSupported = false;
+        return this;
+    }
+
+    /**
+     * Makes every request fail with the given status; 0 restores normal answers.
+     */
+    public StubDirectoryServer failingWith(int status) {
+        this.failureStatus = status;
+        return this;
+    }
+
+    public int singleRequests() {
+        return singleRequests.get();
+    }
+
+    public List<Integer> batchSizes() {
+        return List.copyOf(batchSizes);
+    }
+
+    public int totalRequests() {
+        return singleRequests.get() + batchSizes.size();
+    }
+
+    /**
+     * Creates a client pointed at this server, with snapshots disabled and default resilience settings.
+     */
+    public EmployeeDirectoryClient newClient(boolean fallbackAllow) {
+        return newClient(fallbackAllow, 20);
+    }
+
+    public EmployeeDirectoryClient newClient(boolean fallbackAllow, int maxConcurrentCalls) {
+        return new EmployeeDirectoryClient(url(), fallbackAllow, 10, 1, 1440, 10_000,
+                maxConcurrentCalls, 50, 2000, 20, 10, 30, "", "", new SimpleMeterRegistry());
+    }
+
+    /**
+     * Creates a client that snapshots its cache to the given file, hashing emails with the given key.
+     */
+    public EmployeeDirectoryClient newClient(Path snapshotPath, String snapshotKey) {
+        return new EmployeeDirectoryClient(url(), false, 10, 1, 1440, 10_000,
+                20, 50, 2000, 20, 10, 30, snapshotPath.toString(), snapshotKey, new SimpleMeterRegistry());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            boolean batch = "POST".equals(exchange.getRequestMethod());
+            JsonNode body = batch ? readBody(exchange.getRequestBody()) : null;
+            if (batch && batchSupported) {
+                batchSizes.add(body.path("emails").size());
+            } else if (!batch) {
+                singleRequests.incrementAndGet();
+            }
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+            if (failureStatus != 0) {
+                respond(exchange, failureStatus, "{}");
+            } else if (batch && !batchSupported) {
+                respond(exchange, 404, "{}");
+            } else if (batch) {
+                List<Map<String, Object>> results = new ArrayList<>();
+                body.path("emails").forEach(email -> results.add(
+                        Map.of("email", email.asText(), "exists", employees.contains(email.asText()))));
+                respond(exchange, 200, objectMapper.writeValueAsString(Map.of("results", results)));
+            } else {
+                String email = queryParam(exchange.getRequestURI(), "email");
+                respond(exchange, 200, objectMapper.writeValueAsString(Map.of("exists", employees.contains(email))));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private JsonNode readBody(InputStream in) throws IOException {
+        return objectMapper.readTree(in.readAllBytes());
+    }
+
+    private static String queryParam(URI uri, String name) {
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
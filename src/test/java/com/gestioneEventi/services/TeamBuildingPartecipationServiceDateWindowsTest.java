@@ -0,0 +1,148 @@
+package com.gestioneEventi.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.gestioneEventi.dto.teambuilding.DateWindowDTO;
+import com.gestioneEventi.models.EventType;
+import com.gestioneEventi.repositories.EventRepository;
+import com.gestioneEventi.repositories.TeamBuildingPartecipationRepository;
+import com.gestioneEventi.repositories.TeamBuildingPartecipationRepository.ProposedRange;
+
+/**
+ * Unit tests for the sweep line behind {@link TeamBuildingPartecipationService#getBestDateWindows}.
+ */
+@ExtendWith(MockitoExtension.class)
+class TeamBuildingPartecipationServiceDateWindowsTest {
+
+    private static final Long EVENT_ID = 1L;
+
+    @Mock
+    private TeamBuildingPartecipationRepository partecipationRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @InjectMocks
+    private TeamBuildingPartecipationService service;
+
+    @Test
+    void overlappingProposalsOfSameUserCountOnce() {
+        givenProposals(
+                range(10L, 100L, 1, 5),
+                range(10L, 100L, 4, 8));
+
+        List<DateWindowDTO> windows = service.getBestDateWindows(EVENT_ID, 2, 10, null);
+
+        assertThat(windows).extracting(DateWindowDTO::getStartDate)
+                .containsExactly(day(1), day(2), day(3), day(4), day(5), day(6), day(7));
+        assertThat(windows).extracting(DateWindowDTO::getParticipants).containsOnly(1L);
+    }
+
+    @Test
+    void windowSpanningTwoAdjacentProposalsIsNotCovered() {
+        givenProposals(
+                range(10L, 100L, 1, 3),
+                range(10L, 100L, 4, 6));
+
+        List<DateWindowDTO> windows = service.getBestDateWindows(EVENT_ID, 2, 10, null);
+
+        assertThat(windows).extracting(DateWindowDTO::getStartDate)
+                .containsExactly(day(1), day(2), day(4), day(5));
+    }
+
+    @Test
+    void rangeEndingAndRangeStartingOnSameDayDoNotDoubleCount() {
+        givenProposals(
+                range(10L, 100L, 1, 5),
+                range(11L, 100L, 6, 10),
+                range(12L, 100L, 3, 5),
+                range(13L, 100L, 6, 6));
+
+        List<DateWindowDTO> windows = service.getBestDateWindows(EVENT_ID, 1, 5, null);
+
+        assertThat(windows).extracting(DateWindowDTO::getStartDate)
+                .containsExactly(day(3), day(4), day(5), day(6), day(1));
+        assertThat(windows).extracting(DateWindowDTO::getParticipants)
+                .containsExactly(2L, 2L, 2L, 2L, 1L);
+        assertThat(windows.get(3).getEndDate()).isEqualTo(day(6));
+    }
+
+    @Test
+    void topWindowsAreOrderedByCoverageThenStartDate() {
+        givenProposals(
+                range(10L, 100L, 1, 10),
+                range(11L, 100L, 8, 10));
+
+        List<DateWindowDTO> windows = service.getBestDateWindows(EVENT_ID, 2, 3, null);
+
+        assertThat(windows).containsExactly(
+                new DateWindowDTO(day(8), day(9), 2),
+                new DateWindowDTO(day(9), day(10), 2),
+                new DateWindowDTO(day(1), day(2), 1));
+    }
+
+    @Test
+    void proposalsShorterThanWindowAndOtherActivitiesAreIgnored() {
+        givenProposals(
+                range(10L, 100L, 1, 2),
+                range(11L, 200L, 1, 10),
+                range(12L, 100L, 5, 7));
+
+        List<DateWindowDTO> windows = service.getBestDateWindows(EVENT_ID, 3, 10, 100L);
+
+        assertThat(windows).containsExactly(new DateWindowDTO(day(5), day(7), 1));
+    }
+
+    @Test
+    void nonTeamBuildingEventIsRejected() {
+        when(eventRepository.findEventTypeById(EVENT_ID)).thenReturn(Optional.of(EventType.GENERICO));
+
+        assertThatThrownBy(() -> service.getBestDateWindows(EVENT_ID, 1, 1, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void givenProposals(ProposedRange... ranges) {
+        when(eventRepository.findEventTypeById(EVENT_ID)).thenReturn(Optional.of(EventType.TEAM_BUILDING));
+        when(partecipationRepository.findProposedRangesByEventId(EVENT_ID)).thenReturn(List.of(ranges));
+    }
+
+    private static LocalDate day(int dayOfMonth) {
+        return LocalDate.of(2025, 6, dayOfMonth);
+    }
+
+    private static ProposedRange range(Long userId, Long activityId, int startDay, int endDay) {
+        return new ProposedRange() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getActivityId() {
+                return activityId;
+            }
+
+            @Override
+            public LocalDate getStartDate() {
+                return day(startDay);
+            }
+
+            @Override
+            public LocalDate getEndDate() {
+                return day(endDay);
+            }
+        };
+    }
+}
@@ -0,0 +1,104 @@
+package com.gestioneEventi.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.gestioneEventi.exceptions.BusinessValidationException;
+import com.gestioneEventi.exceptions.ServiceUnavailableException;
+import com.gestioneEventi.models.Role;
+import com.gestioneEventi.models.User;
+import com.gestioneEventi.models.UserGroup;
+import com.gestioneEventi.repositories.UserGroupRepository;
+import com.gestioneEventi.repositories.UserRepository;
+import com.gestioneEventi.services.EmployeeDirectoryClient.Verdict;
+
+/**
+ * Checks that {@link UserGroupService#createGroup} validates members against the directory
+ * before opening the transaction that saves the group.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserGroupServiceCreateGroupTest {
+
+    @Mock
+    private UserGroupRepository userGroupRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EmployeeDirectoryClient directoryClient;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private UserGroupService userGroupService;
+
+    @Test
+    void directoryIsCheckedBeforeTheTransactionOpens() {
+        User mario = user("mario.rossi@example.com");
+        when(directoryClient.areEmployees(List.of("mario.rossi@example.com")))
+                .thenReturn(Map.of("mario.rossi@example.com", Verdict.EMPLOYEE));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(userRepository.findAllByEmailInWithGroups(List.of("mario.rossi@example.com"))).thenReturn(List.of(mario));
+        when(userGroupRepository.save(any(UserGroup.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        UserGroup group = userGroupService.createGroup("Sviluppo", List.of("Mario.Rossi@example.com ", "mario.rossi@example.com"));
+
+        InOrder order = inOrder(directoryClient, transactionTemplate, userRepository);
+        order.verify(directoryClient).areEmployees(List.of("mario.rossi@example.com"));
+        order.verify(transactionTemplate).execute(any());
+        order.verify(userRepository).findAllByEmailInWithGroups(List.of("mario.rossi@example.com"));
+        assertThat(group.getMembers()).containsExactly(mario);
+    }
+
+    @Test
+    void rejectedMembersNeverOpenATransaction() {
+        when(directoryClient.areEmployees(List.of("esterno@example.com")))
+                .thenReturn(Map.of("esterno@example.com", Verdict.NOT_EMPLOYEE));
+
+        assertThatThrownBy(() -> userGroupService.createGroup("Sviluppo", List.of("esterno@example.com")))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessageContaining("esterno@example.com");
+        verifyNoInteractions(transactionTemplate, userRepository, userGroupRepository);
+    }
+
+    @Test
+    void directoryOutageIsNotReportedAsRejectedMembers() {
+        when(directoryClient.areEmployees(List.of("mario.rossi@example.com", "esterno@example.com")))
+                .thenReturn(Map.of("mario.rossi@example.com", Verdict.UNAVAILABLE,
+                        "esterno@example.com", Verdict.NOT_EMPLOYEE));
+
+        assertThatThrownBy(() -> userGroupService.createGroup("Sviluppo",
+                List.of("mario.rossi@example.com", "esterno@example.com")))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessageContaining("mario.rossi@example.com")
+                .hasMessageNotContaining("esterno@example.com");
+        verifyNoInteractions(transactionTemplate, userRepository, userGroupRepository);
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(email);
+        user.setRole(Role.USER);
+        return user;
+    }
+}
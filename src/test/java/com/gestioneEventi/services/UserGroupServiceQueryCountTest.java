@@ -0,0 +1,126 @@
+package com.gestioneEventi.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.gestioneEventi.dto.userGroup.UpdateGroupRequest;
+import com.gestioneEventi.exceptions.ResourceNotFoundException;
+import com.gestioneEventi.models.Role;
+import com.gestioneEventi.models.User;
+import com.gestioneEventi.models.UserGroup;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checks that loading a group with its members, and the members' own groups, takes a constant
+ * number of statements regardless of the group size.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import(UserGroupService.class)
+class UserGroupServiceQueryCountTest {
+
+    private static final int MEMBERS = 40;
+
+    @Autowired
+    private UserGroupService userGroupService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private EmployeeDirectoryClient directoryClient;
+
+    private Statistics statistics;
+    private Long groupId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        UserGroup group = new UserGroup();
+        group.setName("Sviluppo");
+        entityManager.persist(group);
+        UserGroup other = new UserGroup();
+        other.setName("Tutti");
+        entityManager.persist(other);
+
+        for (int i = 0; i < MEMBERS; i++) {
+            User user = new User();
+            user.setEmail("utente" + i + "@example.com");
+            user.setName("Utente " + i);
+            user.setRole(Role.USER);
+            user.getGroups().add(group);
+            user.getGroups().add(other);
+            entityManager.persist(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        groupId = group.getId();
+        statistics.clear();
+    }
+
+    @Test
+    void getGroupByIdLoadsMembersAndTheirGroupsInOneStatement() {
+        UserGroup group = userGroupService.getGroupById(groupId);
+        group.getMembers().forEach(member -> assertThat(member.getGroups()).hasSize(2));
+
+        assertThat(group.getMembers()).hasSize(MEMBERS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void updateGroupLoadsGroupAndNewMembersInTwoStatements() {
+        UpdateGroupRequest request = new UpdateGroupRequest();
+        request.setGroupName("Sviluppo");
+        request.setMemberEmails(List.of("utente1@example.com", "utente2@example.com", "utente3@example.com"));
+
+        UserGroup updated = userGroupService.updateGroup(groupId, request).orElseThrow();
+
+        assertThat(updated.getMembers()).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void updateGroupTreatsCaseVariantEmailsAsOneMember() {
+        UpdateGroupRequest request = new UpdateGroupRequest();
+        request.setGroupName("Sviluppo");
+        request.setMemberEmails(List.of("Utente1@Example.com", "utente1@example.com", " UTENTE2@EXAMPLE.COM "));
+
+        UserGroup updated = userGroupService.updateGroup(groupId, request).orElseThrow();
+
+        assertThat(updated.getMembers())
+                .extracting(User::getEmail)
+                .containsExactlyInAnyOrder("utente1@example.com", "utente2@example.com");
+    }
+
+    @Test
+    void updateGroupReportsUnknownEmails() {
+        UpdateGroupRequest request = new UpdateGroupRequest();
+        request.setGroupName("Sviluppo");
+        request.setMemberEmails(List.of("utente1@example.com", "sconosciuto@example.com"));
+
+        assertThatThrownBy(() -> userGroupService.updateGroup(groupId, request))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("sconosciuto@example.com");
+    }
+}
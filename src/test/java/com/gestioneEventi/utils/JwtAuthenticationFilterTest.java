@@ -0,0 +1,153 @@
+package com.gestioneEventi.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+import javax.crypto.SecretKey;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.gestioneEventi.models.Role;
+import com.gestioneEventi.models.User;
+import com.gestioneEventi.models.UserGroup;
+import com.gestioneEventi.repositories.UserRepository;
+import com.gestioneEventi.services.JwtService;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Checks how {@link JwtAuthenticationFilter} builds the principal from tokens issued by {@link JwtService},
+ * with and without claims-only mode.
+ */
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "chiave-di-test-per-firmare-i-token-jwt-0123456789";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private JwtService jwtService;
+    private User mario;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET, 60_000, 120_000, 100, new SimpleMeterRegistry());
+        UserGroup group = new UserGroup();
+        group.setId(7L);
+        group.setName("Sviluppo");
+        mario = new User();
+        mario.setId(42L);
+        mario.setEmail("mario.rossi@example.com");
+        mario.setName("Mario Rossi");
+        mario.setRole(Role.EDITOR);
+        mario.getGroups().add(group);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void claimsOnlyModeBuildsThePrincipalFromTheToken() throws Exception {
+        Authentication auth = authenticate(new JwtAuthenticationFilter(jwtService, userRepository, true),
+                jwtService.generateAccessToken(mario));
+
+        User principal = (User) auth.getPrincipal();
+        assertThat(principal).isNotSameAs(mario).isEqualTo(mario).hasSameHashCodeAs(mario);
+        assertThat(principal.getId()).isEqualTo(42L);
+        assertThat(principal.getName()).isEqualTo("Mario Rossi");
+        assertThat(principal.getRole()).isEqualTo(Role.EDITOR);
+        // i gruppi non viaggiano nel token: chi ne ha bisogno carica l'utente per id
+        assertThat(principal.getGroups()).isEmpty();
+        assertThat(auth.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("EDITOR");
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void claimsOnlyModeKeepsAMissingName() throws Exception {
+        mario.setName(null);
+
+        Authentication auth = authenticate(new JwtAuthenticationFilter(jwtService, userRepository, true),
+                jwtService.generateAccessToken(mario));
+
+        assertThat((User) auth.getPrincipal()).isEqualTo(mario);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void entityModeLoadsThePrincipalFromTheRepository() throws Exception {
+        when(userRepository.findByEmail("mario.rossi@example.com")).thenReturn(Optional.of(mario));
+
+        Authentication auth = authenticate(new JwtAuthenticationFilter(jwtService, userRepository),
+                jwtService.generateAccessToken(mario));
+
+        assertThat(auth.getPrincipal()).isSameAs(mario);
+        assertThat(mario.getGroups()).hasSize(1);
+        verify(userRepository).findByEmail("mario.rossi@example.com");
+    }
+
+    @Test
+    void tokenWithoutUidFallsBackToTheRepositoryInClaimsOnlyMode() throws Exception {
+        when(userRepository.findByEmail("mario.rossi@example.com")).thenReturn(Optional.of(mario));
+        // token emesso prima dell'introduzione del claim uid
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        String legacyToken = Jwts.builder()
+                .subject("mario.rossi@example.com")
+                .claim("role", Role.EDITOR)
+                .issuedAt(new Date())
+                .expiration(Date.from(Instant.now().plusSeconds(60)))
+                .signWith(key)
+                .compact();
+
+        Authentication auth = authenticate(new JwtAuthenticationFilter(jwtService, userRepository, true), legacyToken);
+
+        assertThat(auth.getPrincipal()).isSameAs(mario);
+        verify(userRepository).findByEmail("mario.rossi@example.com");
+    }
+
+    @Test
+    void invalidTokenLeavesTheRequestUnauthenticated() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        new JwtAuthenticationFilter(jwtService, userRepository, true)
+                .doFilter(request("non-un-token"), new MockHttpServletResponse(), chain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(chain.getRequest()).isNotNull();
+        verifyNoInteractions(userRepository);
+    }
+
+    private static Authentication authenticate(JwtAuthenticationFilter filter, String token) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request(token), new MockHttpServletResponse(), chain);
+        assertThat(chain.getRequest()).isNotNull();
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(auth).isNotNull();
+        return auth;
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request;
+    }
+}
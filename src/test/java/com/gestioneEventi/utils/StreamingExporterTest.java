@@ -0,0 +1,89 @@
+package com.gestioneEventi.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Checks the CSV quoting, escaping and formula neutralisation of {@link StreamingExporter}.
+ */
+class StreamingExporterTest {
+
+    private final StreamingExporter exporter = new StreamingExporter();
+
+    @Test
+    void csvWritesHeaderAndPlainCellsAsTheyAre() throws IOException {
+        String csv = csv(List.of("id", "titolo", "inizio"), Arrays.asList(1L, "Ferie estive", LocalDate.of(2025, 7, 16)));
+
+        assertThat(csv).isEqualTo("id,titolo,inizio\r\n1,Ferie estive,2025-07-16\r\n");
+    }
+
+    @Test
+    void csvQuotesSeparatorsQuotesAndLineBreaks() throws IOException {
+        String csv = csv(List.of("a", "b", "c", "d"),
+                Arrays.asList("Rossi, Mario", "il \"capo\"", "riga1\nriga2", "a\rb"));
+
+        assertThat(csv).endsWith("\"Rossi, Mario\",\"il \"\"capo\"\"\",\"riga1\nriga2\",\"a\rb\"\r\n");
+    }
+
+    @Test
+    void csvWritesNullAsAnEmptyCell() throws IOException {
+        String csv = csv(List.of("a", "b", "c"), Arrays.asList("x", null, "y"));
+
+        assertThat(csv).endsWith("x,,y\r\n");
+    }
+
+    @Test
+    void csvNeutralisesCellsThatLookLikeFormulas() throws IOException {
+        String csv = csv(List.of("a", "b", "c", "d", "e"),
+                Arrays.asList("=SUM(A1:A2)", "+39 333", "-2", "@cmd", "\t=1"));
+
+        assertThat(csv).endsWith("'=SUM(A1:A2),'+39 333,'-2,'@cmd,'\t=1\r\n");
+    }
+
+    @Test
+    void csvQuotesANeutralisedCellThatAlsoNeedsQuoting() throws IOException {
+        String csv = csv(List.of("a"), Arrays.asList("=HYPERLINK(\"http://x\",\"y\")"));
+
+        assertThat(csv).endsWith("\"'=HYPERLINK(\"\"http://x\"\",\"\"y\"\")\"\r\n");
+    }
+
+    @Test
+    void csvLeavesNegativeNumbersUntouched() throws IOException {
+        String csv = csv(List.of("saldo"), Arrays.asList(-3L));
+
+        assertThat(csv).endsWith("-3\r\n");
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws IOException {
+        ReflectionTestUtils.setField(exporter, "objectMapper", new ObjectMapper());
+        StringWriter out = new StringWriter();
+
+        long count = exporter.write(Stream.of(new Row(1L, "=a"), new Row(2L, "b")), ExportFormat.NDJSON,
+                List.of(), row -> List.of(), out);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(out.toString()).isEqualTo("{\"id\":1,\"title\":\"=a\"}\n{\"id\":2,\"title\":\"b\"}\n");
+    }
+
+    private String csv(List<String> header, List<Object> row) throws IOException {
+        StringWriter out = new StringWriter();
+        long count = exporter.write(Stream.of(row), ExportFormat.CSV, header, values -> values, out);
+        assertThat(count).isEqualTo(1);
+        return out.toString();
+    }
+
+    record Row(Long id, String title) {
+    }
+}